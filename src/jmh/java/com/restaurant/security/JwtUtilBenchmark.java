@@ -0,0 +1,42 @@
+package com.restaurant.security;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCache tokenCache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        tokenCache = new VerifiedTokenCache();
+        token = jwtUtil.generateToken("admin", "ROLE_ADMIN");
+        tokenCache.put(token, new VerifiedTokenCache.VerifiedToken(
+                "admin", "ROLE_ADMIN", System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("admin", "ROLE_ADMIN");
+    }
+
+    @Benchmark
+    public Object parseToken() {
+        return jwtUtil.parseToken(token);
+    }
+
+    @Benchmark
+    public Object cachedToken() {
+        return tokenCache.get(token);
+    }
+}
@@ -0,0 +1,46 @@
+package com.restaurant.security;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of RateLimitFilter's bucket check: one cache lookup and one CAS.
+ * {@code keys} is the number of distinct clients; with 1 every thread hits the same bucket
+ * (worst-case CAS contention when run with -t).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"1", "10000"})
+    public int keys;
+
+    private RateLimiter limiter;
+    private String[] clientKeys;
+
+    @Setup
+    public void setUp() {
+        limiter = new RateLimiter(1_000_000, 1_000_000, 100_000);
+        clientKeys = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            clientKeys[i] = "user:" + i;
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        return limiter.tryAcquire(clientKeys[ThreadLocalRandom.current().nextInt(keys)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long tryAcquireContended() {
+        return limiter.tryAcquire(clientKeys[ThreadLocalRandom.current().nextInt(keys)]);
+    }
+}
@@ -0,0 +1,78 @@
+package com.restaurant.service;
+
+import com.restaurant.entity.Customer;
+import com.restaurant.entity.Reservation;
+import com.restaurant.entity.ReservationStatus;
+import com.restaurant.entity.Restaurant;
+import com.restaurant.entity.RestaurantTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity -> DTO mappers of the services (convertToDTO).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private ReservationService reservationService;
+    private CustomerService customerService;
+    private RestaurantTableService tableService;
+
+    private Reservation reservation;
+    private Customer customer;
+    private RestaurantTable table;
+
+    @Setup
+    public void setUp() {
+        // converters do not touch any dependency
+        reservationService = new ReservationService(null, null, null, null, null, null, null, null, null);
+        customerService = new CustomerService();
+        tableService = new RestaurantTableService();
+
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(1L);
+
+        table = new RestaurantTable();
+        table.setId(10L);
+        table.setRestaurant(restaurant);
+        table.setTableNumber(5);
+        table.setCapacity(4);
+        table.setAvailable(true);
+
+        customer = new Customer();
+        customer.setId(100L);
+        customer.setName("Zhang San");
+        customer.setEmail("zhangsan@example.com");
+        customer.setPhone("13800138001");
+
+        reservation = new Reservation();
+        reservation.setId(1000L);
+        reservation.setCustomer(customer);
+        reservation.setRestaurantTable(table);
+        reservation.setReservationTime(LocalDateTime.now().plusDays(1));
+        reservation.setDurationMinutes(90);
+        reservation.setStatus(ReservationStatus.CONFIRMED);
+    }
+
+    @Benchmark
+    public Object reservationToDto() {
+        return reservationService.convertToDTO(reservation);
+    }
+
+    @Benchmark
+    public Object customerToDto() {
+        return customerService.convertToDTO(customer);
+    }
+
+    @Benchmark
+    public Object tableToDto() {
+        return tableService.convertToDTO(table);
+    }
+}
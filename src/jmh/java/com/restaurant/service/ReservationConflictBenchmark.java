@@ -0,0 +1,73 @@
+package com.restaurant.service;
+
+import com.restaurant.entity.Reservation;
+import com.restaurant.entity.RestaurantTable;
+import com.restaurant.repository.ReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Conflict check used by ReservationService.checkTimeConflict, with a table holding
+ * {@code reservationsPerTable} upcoming bookings (one per 30 min slot, back to back).
+ * A timeline only holds the current and next month, so 1000 is about the most a busy
+ * table can have.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationConflictBenchmark {
+
+    private static final long TABLE_ID = 1L;
+    private static final int DURATION = 30;
+
+    @Param({"10", "100", "1000"})
+    public int reservationsPerTable;
+
+    private ReservationTimelineIndex index;
+    private LocalDateTime firstStart;
+
+    @Setup
+    public void setUp() {
+        firstStart = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+        List<Reservation> upcoming = new ArrayList<>(reservationsPerTable);
+        RestaurantTable table = new RestaurantTable();
+        table.setId(TABLE_ID);
+        for (int i = 0; i < reservationsPerTable; i++) {
+            Reservation r = new Reservation();
+            r.setId((long) i + 1);
+            r.setRestaurantTable(table);
+            r.setReservationTime(firstStart.plusMinutes((long) i * DURATION));
+            r.setDurationMinutes(DURATION);
+            upcoming.add(r);
+        }
+
+        ReservationRepository repository = mock(ReservationRepository.class);
+        when(repository.findUpcomingByTable(eq(TABLE_ID), any(), any())).thenReturn(upcoming);
+
+        index = new ReservationTimelineIndex(repository, new SimpleMeterRegistry());
+        index.hasOverlap(TABLE_ID, firstStart, firstStart.plusMinutes(1), null); // load the timeline
+    }
+
+    @Benchmark
+    public void hasOverlap(Blackhole bh) {
+        long slot = ThreadLocalRandom.current().nextInt(reservationsPerTable);
+        LocalDateTime start = firstStart.plusMinutes(slot * DURATION + 30);
+        bh.consume(index.hasOverlap(TABLE_ID, start, start.plusMinutes(60), null));
+    }
+}
@@ -0,0 +1,34 @@
+package com.restaurant.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateTimeUtilsBenchmark {
+
+    private LocalDateTime valid;
+    private LocalDateTime afterClose;
+
+    @Setup
+    public void setUp() {
+        valid = LocalDateTime.now().plusDays(1).withHour(18).withMinute(0);
+        afterClose = LocalDateTime.now().plusDays(1).withHour(21).withMinute(30);
+    }
+
+    @Benchmark
+    public boolean isValidTimeSlot_Valid() {
+        return DateTimeUtils.isValidTimeSlot(valid, 90);
+    }
+
+    @Benchmark
+    public boolean isValidTimeSlot_AfterClose() {
+        return DateTimeUtils.isValidTimeSlot(afterClose, 90);
+    }
+}
@@ -0,0 +1,34 @@
+package com.restaurant.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * GET /actuator/connectionholds: per-endpoint connection hold time and statements per
+ * transaction, worst first, with flagged = true for endpoints that went over budget.
+ * DELETE resets the numbers (e.g. before a load test).
+ */
+@Component
+@Endpoint(id = "connectionholds")
+public class ConnectionHoldEndpoint {
+
+    private final ConnectionHoldProfiler profiler;
+
+    public ConnectionHoldEndpoint(ConnectionHoldProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation
+    public Map<String, ConnectionHoldProfiler.EndpointSnapshot> connectionHolds() {
+        return profiler.snapshot();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+}
@@ -0,0 +1,193 @@
+package com.restaurant.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint record of how long JDBC connections are held and how many statements run on
+ * each one. With open-session-in-view off a connection is held for one transaction (or one
+ * auto-commit statement), so a lease is a transaction.
+ *
+ * Leases come from {@link ProfilingDataSource} around the connection pool; the endpoint is
+ * the handler's route pattern ("GET /api/reservations/{id}"), set by the interceptor in
+ * {@link ConnectionProfilingConfig}, or "background" for scheduled / async work. A lease over
+ * the hold or statement budget is counted and the endpoint flagged; pool exhaustion starts
+ * with exactly those. Exported as db.connection.hold / db.transaction.statements and via
+ * the /actuator/connectionholds endpoint.
+ */
+@Slf4j
+@Component
+public class ConnectionHoldProfiler {
+
+    public static final String BACKGROUND = "background";
+
+    private static final ThreadLocal<String> ENDPOINT = new ThreadLocal<>();
+
+    private final long holdBudgetNanos;
+    private final int statementBudget;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    public ConnectionHoldProfiler(@Value("${db.profiler.hold-budget-ms:100}") long holdBudgetMillis,
+                                  @Value("${db.profiler.statement-budget:20}") int statementBudget,
+                                  MeterRegistry meterRegistry) {
+        this.holdBudgetNanos = TimeUnit.MILLISECONDS.toNanos(holdBudgetMillis);
+        this.statementBudget = statementBudget;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /* -------------------- CURRENT ENDPOINT -------------------- */
+
+    static void enterEndpoint(String endpoint) {
+        ENDPOINT.set(endpoint);
+    }
+
+    static void exitEndpoint() {
+        ENDPOINT.remove();
+    }
+
+    static String currentEndpoint() {
+        String endpoint = ENDPOINT.get();
+        return endpoint == null ? BACKGROUND : endpoint;
+    }
+
+    /* -------------------- RECORDING -------------------- */
+
+    /** Called when a profiled connection is closed (returned to the pool). */
+    void record(String endpoint, long holdNanos, int statements) {
+        EndpointStats stats = endpoints.computeIfAbsent(endpoint, this::newStats);
+        stats.record(holdNanos, statements);
+
+        boolean overHold = holdNanos > holdBudgetNanos;
+        boolean overStatements = statements > statementBudget;
+        if (overHold || overStatements) {
+            stats.overBudget.increment();
+            stats.overBudgetCounter.increment();
+            if (stats.warned.compareAndSet(false, true)) {
+                // 每个接口只在第一次超预算时打日志，之后看计数器 / actuator
+                log.warn("{} held a connection for {} ms with {} statements (budget {} ms / {} statements)",
+                        endpoint, TimeUnit.NANOSECONDS.toMillis(holdNanos), statements,
+                        TimeUnit.NANOSECONDS.toMillis(holdBudgetNanos), statementBudget);
+            }
+        }
+    }
+
+    /** Endpoints ordered by total hold time, worst first. */
+    public Map<String, EndpointSnapshot> snapshot() {
+        Map<String, EndpointSnapshot> result = new LinkedHashMap<>();
+        endpoints.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().snapshot()))
+                .sorted(Comparator.comparingDouble(
+                        (Map.Entry<String, EndpointSnapshot> e) -> e.getValue().totalHoldMillis()).reversed())
+                .forEach(e -> result.put(e.getKey(), e.getValue()));
+        return result;
+    }
+
+    public void reset() {
+        endpoints.values().forEach(EndpointStats::reset);
+    }
+
+    private EndpointStats newStats(String endpoint) {
+        return new EndpointStats(
+                Timer.builder("db.connection.hold")
+                        .description("Time a JDBC connection was held, per endpoint")
+                        .tag("endpoint", endpoint)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry),
+                DistributionSummary.builder("db.transaction.statements")
+                        .description("Statements run per connection lease (transaction), per endpoint")
+                        .tag("endpoint", endpoint)
+                        .register(meterRegistry),
+                Counter.builder("db.connection.hold.over.budget")
+                        .description("Connection leases over the hold-time or statement budget")
+                        .tag("endpoint", endpoint)
+                        .register(meterRegistry));
+    }
+
+    /* -------------------- STATS -------------------- */
+
+    public record EndpointSnapshot(long leases,
+                                   double totalHoldMillis,
+                                   double meanHoldMillis,
+                                   double maxHoldMillis,
+                                   double meanStatements,
+                                   long maxStatements,
+                                   long overBudget,
+                                   boolean flagged) {
+    }
+
+    private final class EndpointStats {
+
+        private final Timer holdTimer;
+        private final DistributionSummary statementSummary;
+        private final Counter overBudgetCounter;
+
+        private final LongAdder leases = new LongAdder();
+        private final LongAdder totalHoldNanos = new LongAdder();
+        private final LongAdder totalStatements = new LongAdder();
+        private final AtomicLong maxHoldNanos = new AtomicLong();
+        private final AtomicLong maxStatements = new AtomicLong();
+        private final LongAdder overBudget = new LongAdder();
+        private final AtomicBoolean warned = new AtomicBoolean();
+
+        EndpointStats(Timer holdTimer, DistributionSummary statementSummary, Counter overBudgetCounter) {
+            this.holdTimer = holdTimer;
+            this.statementSummary = statementSummary;
+            this.overBudgetCounter = overBudgetCounter;
+        }
+
+        void record(long holdNanos, int statements) {
+            holdTimer.record(holdNanos, TimeUnit.NANOSECONDS);
+            statementSummary.record(statements);
+
+            leases.increment();
+            totalHoldNanos.add(holdNanos);
+            totalStatements.add(statements);
+            maxHoldNanos.accumulateAndGet(holdNanos, Math::max);
+            maxStatements.accumulateAndGet(statements, Math::max);
+        }
+
+        EndpointSnapshot snapshot() {
+            long n = leases.sum();
+            double totalMillis = toMillis(totalHoldNanos.sum());
+            return new EndpointSnapshot(
+                    n,
+                    totalMillis,
+                    n == 0 ? 0 : totalMillis / n,
+                    toMillis(maxHoldNanos.get()),
+                    n == 0 ? 0 : (double) totalStatements.sum() / n,
+                    maxStatements.get(),
+                    overBudget.sum(),
+                    maxHoldNanos.get() > holdBudgetNanos || maxStatements.get() > statementBudget);
+        }
+
+        void reset() {
+            leases.reset();
+            totalHoldNanos.reset();
+            totalStatements.reset();
+            maxHoldNanos.set(0);
+            maxStatements.set(0);
+            overBudget.reset();
+            warned.set(false);
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.restaurant.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Wires {@link ConnectionHoldProfiler}: every Hikari pool (the primary, and the replica when
+ * configured) is wrapped in a {@link ProfilingDataSource}, and an interceptor tags the
+ * request thread with the matched route so leases can be attributed to an endpoint.
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.profiler.enabled", havingValue = "true", matchIfMissing = true)
+public class ConnectionProfilingConfig implements WebMvcConfigurer {
+
+    // static: BeanPostProcessor 要在数据源创建之前注册；profiler 延迟获取，避免提前初始化 MeterRegistry
+    @Bean
+    public static BeanPostProcessor connectionProfilingPostProcessor(ObjectProvider<ConnectionHoldProfiler> profiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource pool) {
+                    return new ProfilingDataSource(pool, profiler::getObject);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                ConnectionHoldProfiler.enterEndpoint(
+                        request.getMethod() + " " + (pattern != null ? pattern : "unmatched"));
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                        Object handler, Exception ex) {
+                ConnectionHoldProfiler.exitEndpoint();
+            }
+        });
+    }
+}
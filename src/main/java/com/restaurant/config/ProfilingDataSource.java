@@ -0,0 +1,97 @@
+package com.restaurant.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Wraps a connection pool so every connection handed out reports, on close, how long it
+ * was held and how many statements were prepared on it to {@link ConnectionHoldProfiler}.
+ * Everything else is passed through; unwrap() still reaches the pool (Hikari metrics), and
+ * close() closes the Hikari pool, so the container still shuts it down with the bean.
+ */
+public class ProfilingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final Supplier<ConnectionHoldProfiler> profiler;
+
+    public ProfilingDataSource(DataSource pool, Supplier<ConnectionHoldProfiler> profiler) {
+        super(pool);
+        this.profiler = profiler;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return profiled(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return profiled(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    // 只包装 Hikari 连接池 (ConnectionProfilingConfig)：直接关它，close() 不必声明 throws Exception
+    @Override
+    public void close() {
+        if (getTargetDataSource() instanceof HikariDataSource pool) {
+            pool.close();
+        }
+    }
+
+    private Connection profiled(Connection target) {
+        return (Connection) Proxy.newProxyInstance(
+                ProfilingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Lease(target, ConnectionHoldProfiler.currentEndpoint()));
+    }
+
+    /** One checkout of a pooled connection: from getConnection to close. */
+    private final class Lease implements InvocationHandler {
+
+        private final Connection target;
+        private final String endpoint;
+        private final long acquiredAt = System.nanoTime();
+
+        private int statements;
+        private boolean closed;
+
+        Lease(Connection target, String endpoint) {
+            this.target = target;
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "prepareStatement", "prepareCall", "createStatement":
+                    statements++;
+                    break;
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        profiler.get().record(endpoint, System.nanoTime() - acquiredAt, statements);
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+            }
+        }
+    }
+}
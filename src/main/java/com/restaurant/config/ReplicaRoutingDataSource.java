@@ -0,0 +1,109 @@
+package com.restaurant.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Sends read-only transactions of {@link StalenessTolerant} methods to the replica and
+ * everything else to the primary.
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy (see {@link ReadReplicaConfig}): the
+ * transaction manager asks for a connection when the transaction begins, before the
+ * read-only flag is bound to the thread, and the proxy defers the real getConnection to the
+ * first statement, when the routing decision can be made.
+ *
+ * If the replica cannot hand out a connection (down, pool exhausted) the read goes to the
+ * primary, and the replica is skipped for a while instead of making every request wait for
+ * its connection timeout.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final ThreadLocal<Boolean> STALE_READS_ALLOWED = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long retryReplicaAfterMillis;
+
+    private volatile long replicaSkippedUntil;
+
+    private final Counter replicaConnections;
+    private final Counter primaryFallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    DataSource replica,
+                                    long retryReplicaAfterMillis,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryReplicaAfterMillis = retryReplicaAfterMillis;
+        this.replicaConnections = Counter.builder("datasource.replica.connections")
+                .description("Connections handed out by the read replica")
+                .register(meterRegistry);
+        this.primaryFallbacks = Counter.builder("datasource.replica.fallbacks")
+                .description("Replica-eligible reads that went to the primary because the replica was unavailable")
+                .register(meterRegistry);
+    }
+
+    /** Sets the flag for the current thread and returns the previous value. */
+    public static boolean setStaleReadsAllowed(boolean allowed) {
+        boolean previous = Boolean.TRUE.equals(STALE_READS_ALLOWED.get());
+        if (allowed) {
+            STALE_READS_ALLOWED.set(Boolean.TRUE);
+        } else {
+            STALE_READS_ALLOWED.remove();
+        }
+        return previous;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(ds -> ds.getConnection(username, password));
+    }
+
+    /* -------------------- ROUTING -------------------- */
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (!replicaEligible()) {
+            return source.open(primary);
+        }
+        if (System.currentTimeMillis() < replicaSkippedUntil) {
+            primaryFallbacks.increment();
+            return source.open(primary);
+        }
+
+        try {
+            Connection connection = source.open(replica);
+            replicaConnections.increment();
+            return connection;
+        } catch (SQLException ex) {
+            replicaSkippedUntil = System.currentTimeMillis() + retryReplicaAfterMillis;
+            primaryFallbacks.increment();
+            log.warn("Read replica unavailable, reading from primary for the next {} ms: {}",
+                    retryReplicaAfterMillis, ex.getMessage());
+            return source.open(primary);
+        }
+    }
+
+    private static boolean replicaEligible() {
+        return Boolean.TRUE.equals(STALE_READS_ALLOWED.get())
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
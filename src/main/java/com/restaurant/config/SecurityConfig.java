@@ -1,6 +1,10 @@
 package com.restaurant.config;
 
+import com.restaurant.security.BulkheadPasswordEncoder;
 import com.restaurant.security.JwtFilter;
+import com.restaurant.security.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -16,9 +20,11 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtFilter jwtFilter;
+    private final RateLimitFilter rateLimitFilter;
 
-    public SecurityConfig(JwtFilter jwtFilter) {
+    public SecurityConfig(JwtFilter jwtFilter, RateLimitFilter rateLimitFilter) {
         this.jwtFilter = jwtFilter;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     @Bean
@@ -27,17 +33,25 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable()) // API 模式不需要 CSRF
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll() // 登录注册接口放行
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll() // 探活 / Prometheus 抓取
                 .anyRequest().authenticated() // 其他接口必须登录
             )
             .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) // 不使用 Session
-            .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class); // 插入 JWT 过滤器
+            .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class) // 插入 JWT 过滤器
+            .addFilterAfter(rateLimitFilter, JwtFilter.class); // 限流：已登录按用户，未登录按 IP
 
         return http.build();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    // BCrypt 很耗 CPU：放到独立的有界线程池（舱壁），满了直接 503，不拖垮预订接口
+    @Bean(destroyMethod = "shutdown")
+    public PasswordEncoder passwordEncoder(
+            @Value("${auth.password-hashing.threads:2}") int threads,
+            @Value("${auth.password-hashing.queue-capacity:50}") int queueCapacity,
+            @Value("${auth.password-hashing.timeout-ms:5000}") long timeoutMillis,
+            MeterRegistry meterRegistry) {
+        return new BulkheadPasswordEncoder(
+                new BCryptPasswordEncoder(), threads, queueCapacity, timeoutMillis, meterRegistry);
     }
 
     @Bean
@@ -0,0 +1,22 @@
+package com.restaurant.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@code @Transactional(readOnly = true)} service method whose callers can live
+ * with data that is a little behind the primary, so it may run on the read replica
+ * (see {@link ReplicaRoutingDataSource}). Without a replica configured it has no effect.
+ *
+ * Leave it off reads that must see the caller's own writes (a GET right after a POST) and
+ * reads served with an ETag: the version stamps follow primary commits, so a lagging replica
+ * would hand out old data under the new tag.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface StalenessTolerant {
+}
@@ -0,0 +1,22 @@
+package com.restaurant.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/** Flags the current thread as replica-eligible while a {@link StalenessTolerant} method runs. */
+@Aspect
+@Component
+public class StalenessTolerantAspect {
+
+    @Around("@annotation(com.restaurant.config.StalenessTolerant)")
+    public Object allowStaleReads(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = ReplicaRoutingDataSource.setStaleReadsAllowed(true);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingDataSource.setStaleReadsAllowed(previous);
+        }
+    }
+}
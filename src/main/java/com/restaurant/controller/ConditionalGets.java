@@ -0,0 +1,29 @@
+package com.restaurant.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Conditional GET support: the ETag comes from the services' version stamps, so a
+ * matching If-None-Match is answered with 304 before the database or Jackson is touched.
+ */
+final class ConditionalGets {
+
+    private ConditionalGets() {
+    }
+
+    /**
+     * Returns true (response already set to 304) if the client's copy is current.
+     * Otherwise the ETag header is set and the caller builds the body as usual.
+     * A null etag (ETags switched off) never matches.
+     */
+    static boolean notModified(ServletWebRequest request, String etag) {
+        // no-cache: 浏览器可以缓存，但每次都带 If-None-Match 回来验证
+        // (不显式设置的话 Spring Security 会写 no-store，浏览器根本不缓存)
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        }
+        return etag != null && request.checkNotModified(etag);
+    }
+}
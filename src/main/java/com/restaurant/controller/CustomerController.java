@@ -2,6 +2,7 @@ package com.restaurant.controller;
 
 import com.restaurant.dto.CustomerDTO;
 import com.restaurant.service.CustomerService;
+import com.restaurant.service.IdempotencyService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -17,9 +18,14 @@ public class CustomerController {
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @GetMapping
-    public ResponseEntity<List<CustomerDTO>> getAllCustomers() {
-        return ResponseEntity.ok(customerService.getAllCustomers());
+    public ResponseEntity<List<CustomerDTO>> getCustomers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        return CursorPages.ok(customerService.getCustomers(after, limit));
     }
 
     @GetMapping("/{id}")
@@ -29,8 +35,16 @@ public class CustomerController {
 
     @PostMapping
     public ResponseEntity<CustomerDTO> createCustomer(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody CustomerDTO customerDTO) {  
-        return new ResponseEntity<>(customerService.createCustomer(customerDTO), HttpStatus.CREATED);
+        return idempotencyService.execute(idempotencyKey, "POST /api/customers", customerDTO, CustomerDTO.class,
+                () -> new ResponseEntity<>(customerService.createCustomer(customerDTO), HttpStatus.CREATED));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<CustomerDTO>> createCustomers(
+            @RequestBody List<@Valid CustomerDTO> customerDTOs) {
+        return new ResponseEntity<>(customerService.createCustomers(customerDTOs), HttpStatus.CREATED);
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,58 @@
+package com.restaurant.controller;
+
+import com.restaurant.dto.ImportReportDTO;
+import com.restaurant.exception.BadRequestException;
+import com.restaurant.service.BulkImportService;
+import com.restaurant.service.BulkImportService.Format;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * Bulk import: the body is streamed (never buffered as a whole) as CSV
+ * (Content-Type: text/csv, header row first) or JSONL (application/x-ndjson).
+ * Responds 200 with a per-row error report, also when some rows were rejected.
+ */
+@RestController
+@RequestMapping("/api/import")
+public class ImportController {
+
+    private static final String CSV = "text/csv";
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private BulkImportService importService;
+
+    @PostMapping(value = "/customers", consumes = {CSV, NDJSON})
+    public ResponseEntity<ImportReportDTO> importCustomers(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(importService.importCustomers(request.getInputStream(), formatOf(request)));
+    }
+
+    @PostMapping(value = "/tables", consumes = {CSV, NDJSON})
+    public ResponseEntity<ImportReportDTO> importTables(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(importService.importTables(request.getInputStream(), formatOf(request)));
+    }
+
+    @PostMapping(value = "/reservations", consumes = {CSV, NDJSON})
+    public ResponseEntity<ImportReportDTO> importReservations(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(importService.importReservations(request.getInputStream(), formatOf(request)));
+    }
+
+    private Format formatOf(HttpServletRequest request) {
+        MediaType type = MediaType.parseMediaType(request.getHeader(HttpHeaders.CONTENT_TYPE));
+        if (type.isCompatibleWith(MediaType.parseMediaType(CSV))) {
+            return Format.CSV;
+        }
+        if (type.isCompatibleWith(MediaType.parseMediaType(NDJSON))) {
+            return Format.JSONL;
+        }
+        throw new BadRequestException("Unsupported import format: " + type);
+    }
+}
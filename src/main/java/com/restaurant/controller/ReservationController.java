@@ -2,12 +2,21 @@
 package com.restaurant.controller;
 
 import com.restaurant.dto.ReservationDTO;
+import com.restaurant.dto.ReservationFilter;
+import com.restaurant.service.IdempotencyService;
+import com.restaurant.service.ReservationExportService;
 import com.restaurant.service.ReservationService;
+import com.restaurant.service.VersionStamps;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -17,29 +26,79 @@ public class ReservationController {
     @Autowired
     private ReservationService reservationService;
 
+    @Autowired
+    private ReservationExportService reservationExportService;
+
+    @Autowired
+    private VersionStamps versionStamps;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @GetMapping
-    public ResponseEntity<List<ReservationDTO>> getAllReservations() {
-        return ResponseEntity.ok(reservationService.getAllReservations());
+    public ResponseEntity<List<ReservationDTO>> getReservations(
+            ReservationFilter filter,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            ServletWebRequest request) {
+
+        if (ConditionalGets.notModified(request, versionStamps.collectionETag(VersionStamps.RESERVATIONS))) {
+            return null; // 304
+        }
+        return CursorPages.ok(reservationService.getReservations(filter, after, limit));
+    }
+
+    /**
+     * Full export as NDJSON, streamed straight to the response (same filters as the list).
+     */
+    @GetMapping(value = "/export", produces = ReservationExportService.NDJSON)
+    public void exportReservations(ReservationFilter filter, HttpServletResponse response) throws IOException {
+        response.setContentType(ReservationExportService.NDJSON);
+        reservationExportService.export(filter, response.getOutputStream());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ReservationDTO> getReservationById(@PathVariable Long id) {
+    public ResponseEntity<ReservationDTO> getReservationById(@PathVariable Long id, ServletWebRequest request) {
+        if (ConditionalGets.notModified(request, versionStamps.entityETag(VersionStamps.RESERVATIONS, id))) {
+            return null; // 304
+        }
         return ResponseEntity.ok(reservationService.getReservationById(id));
     }
 
+    /**
+     * With an Idempotency-Key header a retried request returns the first response instead of
+     * booking again.
+     */
     @PostMapping
-    public ResponseEntity<ReservationDTO> createReservation(@RequestBody ReservationDTO reservationDTO) {
-        return new ResponseEntity<>(reservationService.createReservation(reservationDTO), HttpStatus.CREATED);
+    public ResponseEntity<ReservationDTO> createReservation(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestBody ReservationDTO reservationDTO) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/reservations", reservationDTO, ReservationDTO.class,
+                () -> new ResponseEntity<>(reservationService.createReservation(reservationDTO), HttpStatus.CREATED));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<ReservationDTO>> createReservations(@RequestBody List<ReservationDTO> reservationDTOs) {
+        return new ResponseEntity<>(reservationService.createReservations(reservationDTOs), HttpStatus.CREATED);
     }
 
+    /**
+     * The optional reservationTime query parameter is the reservation's current time, as
+     * returned by the API; with it the row is looked up in its own partition only.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<ReservationDTO> updateReservation(@PathVariable Long id, @RequestBody ReservationDTO reservationDTO) {
-        return ResponseEntity.ok(reservationService.updateReservation(id, reservationDTO));
+    public ResponseEntity<ReservationDTO> updateReservation(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime reservationTime,
+            @RequestBody ReservationDTO reservationDTO) {
+        return ResponseEntity.ok(reservationService.updateReservation(id, reservationTime, reservationDTO));
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteReservation(@PathVariable Long id) {
-        reservationService.deleteReservation(id);
+    public ResponseEntity<Void> deleteReservation(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime reservationTime) {
+        reservationService.deleteReservation(id, reservationTime);
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
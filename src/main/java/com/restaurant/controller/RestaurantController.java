@@ -2,15 +2,21 @@
 package com.restaurant.controller;
 
 import com.restaurant.dto.RestaurantDTO;
+import com.restaurant.dto.TableAvailabilityDTO;
+import com.restaurant.service.AvailabilityService;
 import com.restaurant.service.RestaurantService;
+import com.restaurant.service.VersionStamps;
 
 import jakarta.validation.Valid;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -20,16 +26,42 @@ public class RestaurantController {
     @Autowired
     private RestaurantService restaurantService;
 
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private VersionStamps versionStamps;
+
     @GetMapping
-    public ResponseEntity<List<RestaurantDTO>> getAllRestaurants() {
-        return ResponseEntity.ok(restaurantService.getAllRestaurants());
+    public ResponseEntity<List<RestaurantDTO>> getRestaurants(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            ServletWebRequest request) {
+
+        if (ConditionalGets.notModified(request, versionStamps.collectionETag(VersionStamps.RESTAURANTS))) {
+            return null; // 304
+        }
+        return CursorPages.ok(restaurantService.getRestaurants(after, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<RestaurantDTO> getRestaurantById(@PathVariable Long id) {
+    public ResponseEntity<RestaurantDTO> getRestaurantById(@PathVariable Long id, ServletWebRequest request) {
+        if (ConditionalGets.notModified(request, versionStamps.entityETag(VersionStamps.RESTAURANTS, id))) {
+            return null; // 304
+        }
         return ResponseEntity.ok(restaurantService.getRestaurantById(id));
     }
 
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<List<TableAvailabilityDTO>> getAvailability(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam int partySize,
+            @RequestParam(defaultValue = "60") int durationMinutes) {
+
+        return ResponseEntity.ok(availabilityService.getAvailability(id, date, partySize, durationMinutes));
+    }
+
     @PostMapping
     public ResponseEntity<RestaurantDTO> createRestaurant(
             @Valid @RequestBody RestaurantDTO restaurantDTO) {
@@ -3,10 +3,12 @@ package com.restaurant.controller;
 
 import com.restaurant.dto.RestaurantTableDTO;
 import com.restaurant.service.RestaurantTableService;
+import com.restaurant.service.VersionStamps;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -17,13 +19,27 @@ public class RestaurantTableController {
     @Autowired
     private RestaurantTableService tableService;
 
+    @Autowired
+    private VersionStamps versionStamps;
+
     @GetMapping
-    public ResponseEntity<List<RestaurantTableDTO>> getAllTables() {
-        return ResponseEntity.ok(tableService.getAllTables());
+    public ResponseEntity<List<RestaurantTableDTO>> getTables(
+            @RequestParam(required = false) Long restaurantId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            ServletWebRequest request) {
+
+        if (ConditionalGets.notModified(request, versionStamps.collectionETag(VersionStamps.TABLES))) {
+            return null; // 304
+        }
+        return CursorPages.ok(tableService.getTables(restaurantId, after, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<RestaurantTableDTO> getTableById(@PathVariable Long id) {
+    public ResponseEntity<RestaurantTableDTO> getTableById(@PathVariable Long id, ServletWebRequest request) {
+        if (ConditionalGets.notModified(request, versionStamps.entityETag(VersionStamps.TABLES, id))) {
+            return null; // 304
+        }
         return ResponseEntity.ok(tableService.getTableById(id));
     }
 
@@ -0,0 +1,44 @@
+package com.restaurant.controller;
+
+import com.restaurant.dto.WaitlistEntryDTO;
+import com.restaurant.entity.WaitlistStatus;
+import com.restaurant.service.WaitlistService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/waitlist")
+public class WaitlistController {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @GetMapping
+    public ResponseEntity<List<WaitlistEntryDTO>> getEntries(
+            @RequestParam(required = false) Long restaurantId,
+            @RequestParam(required = false) WaitlistStatus status,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        return CursorPages.ok(waitlistService.getEntries(restaurantId, status, after, limit));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<WaitlistEntryDTO> getEntryById(@PathVariable Long id) {
+        return ResponseEntity.ok(waitlistService.getEntryById(id));
+    }
+
+    @PostMapping
+    public ResponseEntity<WaitlistEntryDTO> addEntry(@RequestBody WaitlistEntryDTO entryDTO) {
+        return new ResponseEntity<>(waitlistService.addEntry(entryDTO), HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelEntry(@PathVariable Long id) {
+        waitlistService.cancelEntry(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -2,9 +2,13 @@ package com.restaurant.dto;
 
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor // 供 JPQL 构造表达式直接投影 (id, name, email, phone)
 public class CustomerDTO {
 
     private Long id;
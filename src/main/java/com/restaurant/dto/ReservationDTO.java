@@ -1,17 +1,33 @@
 // src/main/java/com/restaurant/dto/ReservationDTO.java
 package com.restaurant.dto;
 
+import com.restaurant.entity.ReservationStatus;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 public class ReservationDTO {
     private Long id;
     private Long customerId;
     private Long tableId;
+    // 不传 tableId 时必填：由系统在这家餐厅里分配最小的空闲餐桌
+    private Long restaurantId;
     private LocalDateTime reservationTime;
     private int durationMinutes;
-    private String status;
+    private ReservationStatus status;
     private int numGuests; 
+
+    // 供 JPQL 构造表达式直接投影（numGuests 不落库）
+    public ReservationDTO(Long id, Long customerId, Long tableId,
+                          LocalDateTime reservationTime, int durationMinutes, ReservationStatus status) {
+        this.id = id;
+        this.customerId = customerId;
+        this.tableId = tableId;
+        this.reservationTime = reservationTime;
+        this.durationMinutes = durationMinutes;
+        this.status = status;
+    }
 }
\ No newline at end of file
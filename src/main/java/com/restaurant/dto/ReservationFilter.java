@@ -0,0 +1,28 @@
+// src/main/java/com/restaurant/dto/ReservationFilter.java
+package com.restaurant.dto;
+
+import com.restaurant.entity.ReservationStatus;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters for GET /api/reservations; null fields are ignored.
+ * from / to bound reservationTime as [from, to). An open range is narrowed to a default window
+ * (see ReservationService#applyDefaultWindow) so only a few monthly partitions are read.
+ */
+@Data
+public class ReservationFilter {
+    private Long restaurantId;
+    private Long tableId;
+    private Long customerId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    private ReservationStatus status;
+}
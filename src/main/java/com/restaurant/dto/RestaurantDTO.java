@@ -1,11 +1,15 @@
 // src/main/java/com/restaurant/dto/RestaurantDTO.java
 package com.restaurant.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import jakarta.validation.constraints.NotBlank;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor // 供 JPQL 构造表达式直接投影 (id, name, address, phone)
 public class RestaurantDTO {
 
     private Long id;
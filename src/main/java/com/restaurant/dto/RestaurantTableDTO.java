@@ -1,9 +1,13 @@
 // src/main/java/com/restaurant/dto/RestaurantTableDTO.java
 package com.restaurant.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor // 供 JPQL 构造表达式直接投影 (id, restaurantId, tableNumber, capacity, available)
 public class RestaurantTableDTO {
     private Long id;
     private Long restaurantId;
@@ -0,0 +1,15 @@
+// src/main/java/com/restaurant/dto/TableAvailabilityDTO.java
+package com.restaurant.dto;
+
+import lombok.Data;
+
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+public class TableAvailabilityDTO {
+    private Long tableId;
+    private int tableNumber;
+    private int capacity;
+    private List<LocalTime> freeStartTimes;
+}
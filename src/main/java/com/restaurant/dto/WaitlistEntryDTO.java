@@ -0,0 +1,24 @@
+package com.restaurant.dto;
+
+import com.restaurant.entity.WaitlistStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor // 供 JPQL 构造表达式直接投影
+public class WaitlistEntryDTO {
+    private Long id;
+    private Long customerId;
+    private Long restaurantId;
+    private int numGuests;
+    private int durationMinutes;
+    private LocalDateTime earliestStart;
+    private LocalDateTime latestStart;
+    private WaitlistStatus status;
+    private Long reservationId;
+    private LocalDateTime createdAt;
+}
@@ -10,7 +10,9 @@ import lombok.*;
 @AllArgsConstructor
 public class Customer {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // 序列 + allocationSize 才能让 hibernate.jdbc.batch_size 生效（IDENTITY 会禁用批量插入）
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -0,0 +1,56 @@
+package com.restaurant.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored outcome of a request sent with an Idempotency-Key. A record without a response
+ * status is a claim: the first request is still being processed.
+ */
+@Entity
+@Table(name = "idempotency_key")
+@Getter
+@Setter
+@NoArgsConstructor
+public class IdempotencyRecord implements Persistable<String> {
+    @Id
+    @Column(length = 400)
+    private String scope;
+
+    private String requestHash;
+
+    private Integer responseStatus;
+
+    @Column(length = 100_000)
+    private String responseBody;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+
+    // id 是业务主键：save 必须是 INSERT (主键冲突 = 别人先认领了)，不能被 merge 成 UPDATE
+    @Transient
+    private boolean fresh = true;
+
+    @Override
+    public String getId() {
+        return scope;
+    }
+
+    @Override
+    public boolean isNew() {
+        return fresh;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        fresh = false;
+    }
+
+    public boolean isCompleted() {
+        return responseStatus != null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.restaurant.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change to an aggregate (e.g. a reservation), written in the same transaction as the
+ * change itself and delivered later by OutboxDispatcher.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    @Id
+    // 插入时取号：id 顺序就是提交顺序 (见 V10)，故意不用池化序列
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String aggregateType;
+    private Long aggregateId;
+    private String eventType;
+
+    // JSON
+    @Column(length = 100_000)
+    private String payload;
+
+    private LocalDateTime createdAt;
+
+    // null = 还没投递
+    private LocalDateTime publishedAt;
+}
@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Reservation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // 序列 + allocationSize 才能让 hibernate.jdbc.batch_size 生效（IDENTITY 会禁用批量插入）
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_seq")
+    @SequenceGenerator(name = "reservation_seq", sequenceName = "reservation_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -27,5 +29,15 @@ public class Reservation {
 
     private LocalDateTime reservationTime;
     private int durationMinutes;
-    private String status; 
+    @Enumerated(EnumType.STRING)
+    private ReservationStatus status;
+
+    // reservationTime + durationMinutes，持久化后用于带上下界的重叠查询
+    private LocalDateTime endTime;
+
+    @PrePersist
+    @PreUpdate
+    void syncEndTime() {
+        endTime = reservationTime == null ? null : reservationTime.plusMinutes(durationMinutes);
+    }
 }
\ No newline at end of file
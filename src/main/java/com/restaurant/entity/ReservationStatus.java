@@ -0,0 +1,41 @@
+package com.restaurant.entity;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Reservation lifecycle:
+ *
+ * <pre>
+ * PENDING   → CONFIRMED | CANCELLED
+ * CONFIRMED → CANCELLED | COMPLETED | NO_SHOW
+ * CANCELLED, COMPLETED, NO_SHOW: terminal
+ * </pre>
+ *
+ * Only active reservations (PENDING, CONFIRMED) occupy their table's time slot.
+ */
+public enum ReservationStatus {
+    PENDING,
+    CONFIRMED,
+    CANCELLED,
+    COMPLETED,
+    NO_SHOW;
+
+    /** Statuses that block the slot; keep in sync with the partial index / exclusion constraint (V7). */
+    public static final Set<ReservationStatus> ACTIVE = EnumSet.of(PENDING, CONFIRMED);
+
+    public boolean isActive() {
+        return ACTIVE.contains(this);
+    }
+
+    public boolean canTransitionTo(ReservationStatus next) {
+        if (next == this) {
+            return true;
+        }
+        return switch (this) {
+            case PENDING -> next == CONFIRMED || next == CANCELLED;
+            case CONFIRMED -> next == CANCELLED || next == COMPLETED || next == NO_SHOW;
+            case CANCELLED, COMPLETED, NO_SHOW -> false;
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.restaurant.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A party waiting for a table at a restaurant, for any start time in
+ * [earliestStart, latestStart]. Promoted automatically when a matching slot is freed.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "waitlist_entry_seq")
+    @SequenceGenerator(name = "waitlist_entry_seq", sequenceName = "waitlist_entry_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "customer_id")
+    @ToString.Exclude
+    private Customer customer;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "restaurant_id")
+    @ToString.Exclude
+    private Restaurant restaurant;
+
+    private int numGuests;
+    private int durationMinutes;
+
+    // 可以接受的开始时间范围
+    private LocalDateTime earliestStart;
+    private LocalDateTime latestStart;
+
+    @Enumerated(EnumType.STRING)
+    private WaitlistStatus status;
+
+    // 晋升后生成的预订
+    private Long reservationId;
+
+    // 被晋升认领的时间；认领超时还没有 reservationId 的条目会被放回候补
+    private LocalDateTime promotedAt;
+
+    private LocalDateTime createdAt;
+}
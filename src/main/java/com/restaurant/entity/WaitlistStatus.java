@@ -0,0 +1,11 @@
+package com.restaurant.entity;
+
+/**
+ * WAITING -> PROMOTED (a freed table was booked for the party, see reservationId)
+ * WAITING -> CANCELLED (the guest left the waitlist)
+ */
+public enum WaitlistStatus {
+    WAITING,
+    PROMOTED,
+    CANCELLED
+}
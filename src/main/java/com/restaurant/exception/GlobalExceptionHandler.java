@@ -1,11 +1,16 @@
 package com.restaurant.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.time.LocalDateTime;
 import java.util.Map;
@@ -13,9 +18,16 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     // 400 - Validation Errors (@Valid)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<?> handleValidationException(MethodArgumentNotValidException ex) {
+        count(HttpStatus.BAD_REQUEST, ex);
 
         String errorMessage = ex.getBindingResult()
                 .getFieldErrors()
@@ -30,9 +42,39 @@ public class GlobalExceptionHandler {
         );
     }
 
+    // 400 - Validation Errors on collection elements (List<@Valid ...>)
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<?> handleMethodValidationException(HandlerMethodValidationException ex) {
+        count(HttpStatus.BAD_REQUEST, ex);
+
+        String errorMessage = ex.getAllErrors()
+                .stream()
+                .map(err -> err.getDefaultMessage())
+                .findFirst()
+                .orElse("Invalid request");
+
+        return new ResponseEntity<>(
+                buildError(HttpStatus.BAD_REQUEST, errorMessage),
+                HttpStatus.BAD_REQUEST
+        );
+    }
+
+    // 400 - Malformed body, e.g. an unknown reservation status
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<?> handleNotReadable(HttpMessageNotReadableException ex) {
+        count(HttpStatus.BAD_REQUEST, ex);
+
+        return new ResponseEntity<>(
+                buildError(HttpStatus.BAD_REQUEST, "Malformed request body."),
+                HttpStatus.BAD_REQUEST
+        );
+    }
+
     // 404 - Not Found
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<?> handleNotFound(ResourceNotFoundException ex) {
+        count(HttpStatus.NOT_FOUND, ex);
+
         return new ResponseEntity<>(
                 buildError(HttpStatus.NOT_FOUND, ex.getMessage()),
                 HttpStatus.NOT_FOUND
@@ -42,6 +84,8 @@ public class GlobalExceptionHandler {
     // 400 - Bad Request
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<?> handleBadRequest(BadRequestException ex) {
+        count(HttpStatus.BAD_REQUEST, ex);
+
         return new ResponseEntity<>(
                 buildError(HttpStatus.BAD_REQUEST, ex.getMessage()),
                 HttpStatus.BAD_REQUEST
@@ -51,15 +95,39 @@ public class GlobalExceptionHandler {
     // 409 - Conflict (custom conflict)
     @ExceptionHandler(ConflictException.class)
     public ResponseEntity<?> handleConflict(ConflictException ex) {
+        count(HttpStatus.CONFLICT, ex);
+
         return new ResponseEntity<>(
                 buildError(HttpStatus.CONFLICT, ex.getMessage()),
                 HttpStatus.CONFLICT
         );
     }
 
+    // 422 - Unprocessable (e.g. an Idempotency-Key reused with a different request)
+    @ExceptionHandler(UnprocessableEntityException.class)
+    public ResponseEntity<?> handleUnprocessable(UnprocessableEntityException ex) {
+        count(HttpStatus.UNPROCESSABLE_ENTITY, ex);
+
+        return new ResponseEntity<>(
+                buildError(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage()),
+                HttpStatus.UNPROCESSABLE_ENTITY
+        );
+    }
+
+    // 503 - Service Unavailable (e.g. password hashing bulkhead is full)
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<?> handleServiceUnavailable(ServiceUnavailableException ex) {
+        count(HttpStatus.SERVICE_UNAVAILABLE, ex);
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(buildError(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()));
+    }
+
     // ⭐ 409 - DataIntegrityViolationException 
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<?> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        count(HttpStatus.CONFLICT, ex);
 
         String message = "Operation failed due to related data. " +
                 "For example, the resource may still be referenced.";
@@ -73,12 +141,23 @@ public class GlobalExceptionHandler {
     // 500 - fallback
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleGeneralException(Exception ex) {
+        count(HttpStatus.INTERNAL_SERVER_ERROR, ex);
+
         return new ResponseEntity<>(
                 buildError(HttpStatus.INTERNAL_SERVER_ERROR, "Internal server error."),
                 HttpStatus.INTERNAL_SERVER_ERROR
         );
     }
 
+    // api.errors{status, exception}: 409 / 404 / 400 各自的走势一目了然
+    private void count(HttpStatus status, Exception ex) {
+        Counter.builder("api.errors")
+                .tag("status", String.valueOf(status.value()))
+                .tag("exception", ex.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
+
     private Map<String, Object> buildError(HttpStatus status, String message) {
         return Map.of(
                 "timestamp", LocalDateTime.now(),
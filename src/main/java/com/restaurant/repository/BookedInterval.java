@@ -0,0 +1,13 @@
+package com.restaurant.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a reservation's table and time range,
+ * used where only the occupied interval matters (e.g. availability).
+ */
+public interface BookedInterval {
+    Long getTableId();
+    LocalDateTime getStartTime();
+    LocalDateTime getEndTime();
+}
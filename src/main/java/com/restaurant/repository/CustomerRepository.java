@@ -1,8 +1,25 @@
 // src/main/java/com/restaurant/repository/CustomerRepository.java
 package com.restaurant.repository;
 
+import com.restaurant.dto.CustomerDTO;
 import com.restaurant.entity.Customer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
-}
\ No newline at end of file
+
+    String DTO = "new com.restaurant.dto.CustomerDTO(c.id, c.name, c.email, c.phone)";
+
+    // 读路径直接投影成 DTO，不进入持久化上下文
+    @Query("SELECT " + DTO + " FROM Customer c WHERE c.id = :id")
+    Optional<CustomerDTO> findDtoById(@Param("id") Long id);
+
+    // keyset pagination: WHERE id > :after ORDER BY id LIMIT :limit
+    @Query("SELECT " + DTO + " FROM Customer c WHERE c.id > :after ORDER BY c.id")
+    List<CustomerDTO> findDtoPage(@Param("after") Long after, Limit limit);
+}
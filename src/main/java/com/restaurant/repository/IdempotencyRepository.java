@@ -0,0 +1,53 @@
+package com.restaurant.repository;
+
+import com.restaurant.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // 认领由 (scope, created_at) 标识：认领超时后被别的请求接手的行，原来的请求不会再改动
+
+    /** Stores the response under the claim made at claimedAt; 0 if that claim is gone. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r " +
+           "SET r.responseStatus = :status, r.responseBody = :body, r.expiresAt = :expiresAt " +
+           "WHERE r.scope = :scope AND r.createdAt = :claimedAt AND r.responseStatus IS NULL")
+    int complete(@Param("scope") String scope,
+                 @Param("claimedAt") LocalDateTime claimedAt,
+                 @Param("status") int status,
+                 @Param("body") String body,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    /** Extends the lease of a claim whose request is still running; 0 if the claim is gone. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.expiresAt = :expiresAt " +
+           "WHERE r.scope = :scope AND r.createdAt = :claimedAt AND r.responseStatus IS NULL")
+    int renewClaim(@Param("scope") String scope,
+                   @Param("claimedAt") LocalDateTime claimedAt,
+                   @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+
+    /** Removes an unfinished claim (the request failed, the client may retry with the same key). */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r " +
+           "WHERE r.scope = :scope AND r.createdAt = :claimedAt AND r.responseStatus IS NULL")
+    int releaseClaim(@Param("scope") String scope, @Param("claimedAt") LocalDateTime claimedAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.scope = :scope AND r.expiresAt < :now")
+    int deleteIfExpired(@Param("scope") String scope, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,28 @@
+package com.restaurant.repository;
+
+import com.restaurant.dto.ReservationDTO;
+import com.restaurant.dto.ReservationFilter;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Filtered reservation listings, built from the filters that are present only. An
+ * {@code (:x IS NULL OR col = :x)} predicate is planned once for every combination, which
+ * keeps PostgreSQL from pruning partitions on reservation_time or using the per-column
+ * indexes; a query that only names the columns it filters on gets both.
+ */
+public interface ReservationFilterQueries {
+
+    /** Keyset page of reservations with id greater than after, ordered by id. */
+    List<ReservationDTO> findDtoPage(Long after, ReservationFilter filter, Limit limit);
+
+    /**
+     * Same filters as findDtoPage, unpaged, as a forward-only stream for exports.
+     * Rows are fetched from the server cursor EXPORT_FETCH_SIZE at a time (PostgreSQL only
+     * honours the fetch size inside a transaction) and, being DTOs, never enter the
+     * persistence context. The caller must close the stream.
+     */
+    Stream<ReservationDTO> streamForExport(ReservationFilter filter);
+}
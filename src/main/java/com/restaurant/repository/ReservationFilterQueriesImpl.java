@@ -0,0 +1,82 @@
+package com.restaurant.repository;
+
+import com.restaurant.dto.ReservationDTO;
+import com.restaurant.dto.ReservationFilter;
+import com.restaurant.entity.Reservation;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ReservationFilterQueriesImpl implements ReservationFilterQueries {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ReservationDTO> findDtoPage(Long after, ReservationFilter filter, Limit limit) {
+        return query(after, filter)
+                .setMaxResults(limit.max())
+                .getResultList();
+    }
+
+    @Override
+    public Stream<ReservationDTO> streamForExport(ReservationFilter filter) {
+        return query(null, filter)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.parseInt(ReservationRepository.EXPORT_FETCH_SIZE))
+                .getResultStream();
+    }
+
+    private TypedQuery<ReservationDTO> query(Long after, ReservationFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ReservationDTO> query = cb.createQuery(ReservationDTO.class);
+        Root<Reservation> r = query.from(Reservation.class);
+
+        // 同 ReservationRepository.DTO
+        query.select(cb.construct(ReservationDTO.class,
+                r.get("id"),
+                r.get("customer").get("id"),
+                r.get("restaurantTable").get("id"),
+                r.get("reservationTime"),
+                r.get("durationMinutes"),
+                r.get("status")));
+
+        // 只为传了的条件生成谓词：reservation_time 的上下界直接出现在 SQL 里，分区才能裁剪
+        List<Predicate> where = new ArrayList<>();
+        if (after != null) {
+            where.add(cb.greaterThan(r.<Long>get("id"), after));
+        }
+        if (filter.getRestaurantId() != null) {
+            where.add(cb.equal(r.get("restaurantTable").get("restaurant").get("id"), filter.getRestaurantId()));
+        }
+        if (filter.getTableId() != null) {
+            where.add(cb.equal(r.get("restaurantTable").get("id"), filter.getTableId()));
+        }
+        if (filter.getCustomerId() != null) {
+            where.add(cb.equal(r.get("customer").get("id"), filter.getCustomerId()));
+        }
+        if (filter.getFrom() != null) {
+            where.add(cb.greaterThanOrEqualTo(r.<LocalDateTime>get("reservationTime"), filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            where.add(cb.lessThan(r.<LocalDateTime>get("reservationTime"), filter.getTo()));
+        }
+        if (filter.getStatus() != null) {
+            where.add(cb.equal(r.get("status"), filter.getStatus()));
+        }
+
+        query.where(where.toArray(Predicate[]::new))
+             .orderBy(cb.asc(r.get("id")));
+        return entityManager.createQuery(query);
+    }
+}
@@ -1,21 +1,162 @@
 package com.restaurant.repository;
 
+import com.restaurant.dto.ReservationDTO;
 import com.restaurant.entity.Reservation;
+import com.restaurant.entity.ReservationStatus;
+import com.restaurant.entity.RestaurantTable;
+import com.restaurant.util.DateTimeUtils;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+public interface ReservationRepository extends JpaRepository<Reservation, Long>, ReservationFilterQueries {
+
+    String DTO = "new com.restaurant.dto.ReservationDTO(" +
+                 "r.id, r.customer.id, r.restaurantTable.id, r.reservationTime, r.durationMinutes, r.status)";
+
+    String EXPORT_FETCH_SIZE = "1000";
+
+    // 只有进行中的预订占用时段；谓词和 V7 的部分索引 / 排他约束保持一致，索引才能命中
+    String ACTIVE = "r.status IN (com.restaurant.entity.ReservationStatus.PENDING, " +
+                    "com.restaurant.entity.ReservationStatus.CONFIRMED)";
+    String ACTIVE_SQL = "r.status IN ('PENDING', 'CONFIRMED')";
+
+    // reservation 按 reservation_time 月度分区 (V8)：热点查询必须给 reservation_time 上下界，
+    // 才能只扫描命中的分区。预订最长 MAX_DURATION 分钟，重叠的预订不会早于 start - MAX_DURATION 开始
+    String EARLIEST_OVERLAPPING_START_SQL =
+            "CAST(:start AS TIMESTAMP) - INTERVAL '" + DateTimeUtils.MAX_DURATION + "' MINUTE";
+
+    /**
+     * Returns true if an active reservation on the given table (other than excludeId)
+     * overlaps [start, end). Both bounds are evaluated in SQL so the probe is served by
+     * the partial index idx_reservation_active_table_time without loading any entity, and
+     * reservation_time is bounded on both sides so only the partition(s) of that day are probed.
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM reservation r " +
+                   "WHERE r.table_id = :tableId " +
+                   "AND r.reservation_time < :end " +
+                   "AND r.reservation_time > " + EARLIEST_OVERLAPPING_START_SQL + " " +
+                   "AND r.end_time > :start " +
+                   "AND r.id <> COALESCE(:excludeId, -1) " +
+                   "AND " + ACTIVE_SQL + ")",
+           nativeQuery = true)
+    boolean existsOverlap(@Param("tableId") Long tableId,
+                          @Param("start") LocalDateTime start,
+                          @Param("end") LocalDateTime end,
+                          @Param("excludeId") Long excludeId);
+
+    /**
+     * Active reservations for the given table starting in [from, until).
+     * Used to warm the in-memory timeline without reading the table's history
+     * or partitions beyond the timeline's window.
+     */
+    @Query("SELECT r FROM Reservation r " +
+           "WHERE r.restaurantTable.id = :tableId " +
+           "AND r.reservationTime >= :from AND r.reservationTime < :until AND " + ACTIVE)
+    List<Reservation> findUpcomingByTable(@Param("tableId") Long tableId,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("until") LocalDateTime until);
+
+    /**
+     * Active reservations of a restaurant that intersect [from, to),
+     * projected to (tableId, start, end) only. earliestStart is a lower bound on
+     * reservation_time (from minus the longest booking) so the partitions are pruned.
+     */
+    @Query("SELECT r.restaurantTable.id AS tableId, r.reservationTime AS startTime, r.endTime AS endTime " +
+           "FROM Reservation r " +
+           "WHERE r.restaurantTable.restaurant.id = :restaurantId " +
+           "AND r.reservationTime >= :earliestStart " +
+           "AND r.reservationTime < :to AND r.endTime > :from " +
+           "AND " + ACTIVE)
+    List<BookedInterval> findBookedIntervals(@Param("restaurantId") Long restaurantId,
+                                             @Param("earliestStart") LocalDateTime earliestStart,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
+
+    /**
+     * Which of the given tables have an active reservation intersecting [start, end).
+     * One query for all candidate tables when a table is assigned automatically.
+     */
+    @Query("SELECT DISTINCT r.restaurantTable.id FROM Reservation r " +
+           "WHERE r.restaurantTable.id IN :tableIds " +
+           "AND r.reservationTime >= :earliestStart " +
+           "AND r.reservationTime < :end AND r.endTime > :start " +
+           "AND " + ACTIVE)
+    List<Long> findBusyTableIds(@Param("tableIds") Collection<Long> tableIds,
+                                @Param("earliestStart") LocalDateTime earliestStart,
+                                @Param("start") LocalDateTime start,
+                                @Param("end") LocalDateTime end);
+
+    /* -------------------- WRITES BY FULL PRIMARY KEY -------------------- */
+
+    // 分区表的主键是 (id, reservation_time)：只按 id 写的 UPDATE / DELETE 要探测每个分区的主键索引，
+    // 带上 reservation_time 才能裁剪到预订所在的那个分区
+
+    /**
+     * Loads a reservation that is about to be changed, by its full primary key: only the
+     * partition holding it is searched. Read-only: the change is written back with
+     * updateByIdAndReservationTime / deleteByIdAndReservationTime, never by dirty checking,
+     * whose statements would carry the id alone.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT r FROM Reservation r WHERE r.id = :id AND r.reservationTime = :reservationTime")
+    Optional<Reservation> findForWriteByIdAndReservationTime(@Param("id") Long id,
+                                                             @Param("reservationTime") LocalDateTime reservationTime);
 
     /**
-     * Finds reservations for the given table that start before the specified endTime.
-     * Further overlap checks are performed in the service layer.
+     * Like findForWriteByIdAndReservationTime when the time is not known: searches the
+     * partitions of [from, until) only.
      */
-    // ✅ 修复：将 r.table.id 改为 r.restaurantTable.id
-    @Query("SELECT r FROM Reservation r WHERE r.restaurantTable.id = :tableId AND r.reservationTime < :endTime")
-    List<Reservation> findPotentialOverlaps(@Param("tableId") Long tableId,
-                                            @Param("endTime") LocalDateTime endTime);
-}
\ No newline at end of file
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT r FROM Reservation r " +
+           "WHERE r.id = :id AND r.reservationTime >= :from AND r.reservationTime < :until")
+    Optional<Reservation> findForWriteByIdWithin(@Param("id") Long id,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("until") LocalDateTime until);
+
+    /**
+     * Last resort for a reservation outside any window tried (in the past, or far ahead):
+     * the id alone probes every attached partition's primary key index.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT r FROM Reservation r WHERE r.id = :id")
+    Optional<Reservation> findForWriteById(@Param("id") Long id);
+
+    /**
+     * Writes the new values of a reservation, addressed by (id, previousTime) so only the
+     * partition holding the row is searched; PostgreSQL moves the row if the new time falls
+     * in another month. Returns 0 if no row has that key any more (changed concurrently).
+     */
+    @Modifying
+    @Query("UPDATE Reservation r SET r.restaurantTable = :table, r.reservationTime = :reservationTime, " +
+           "r.durationMinutes = :durationMinutes, r.endTime = :endTime, r.status = :status " +
+           "WHERE r.id = :id AND r.reservationTime = :previousTime")
+    int updateByIdAndReservationTime(@Param("id") Long id,
+                                     @Param("previousTime") LocalDateTime previousTime,
+                                     @Param("table") RestaurantTable table,
+                                     @Param("reservationTime") LocalDateTime reservationTime,
+                                     @Param("durationMinutes") int durationMinutes,
+                                     @Param("endTime") LocalDateTime endTime,
+                                     @Param("status") ReservationStatus status);
+
+    /** Deletes by the full primary key, touching only the reservation's own partition. */
+    @Modifying
+    @Query("DELETE FROM Reservation r WHERE r.id = :id AND r.reservationTime = :reservationTime")
+    int deleteByIdAndReservationTime(@Param("id") Long id,
+                                     @Param("reservationTime") LocalDateTime reservationTime);
+
+    /* -------------------- READS -------------------- */
+
+    // 读路径直接投影成 DTO，不进入持久化上下文
+    @Query("SELECT " + DTO + " FROM Reservation r WHERE r.id = :id")
+    Optional<ReservationDTO> findDtoById(@Param("id") Long id);
+}
@@ -1,8 +1,25 @@
 // src/main/java/com/restaurant/repository/RestaurantRepository.java
 package com.restaurant.repository;
 
+import com.restaurant.dto.RestaurantDTO;
 import com.restaurant.entity.Restaurant;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
-}
\ No newline at end of file
+
+    String DTO = "new com.restaurant.dto.RestaurantDTO(r.id, r.name, r.address, r.phone)";
+
+    // 读路径直接投影成 DTO，不进入持久化上下文
+    @Query("SELECT " + DTO + " FROM Restaurant r WHERE r.id = :id")
+    Optional<RestaurantDTO> findDtoById(@Param("id") Long id);
+
+    // keyset pagination: WHERE id > :after ORDER BY id LIMIT :limit
+    @Query("SELECT " + DTO + " FROM Restaurant r WHERE r.id > :after ORDER BY r.id")
+    List<RestaurantDTO> findDtoPage(@Param("after") Long after, Limit limit);
+}
@@ -1,11 +1,43 @@
 // src/main/java/com/restaurant/repository/TableRepository.java
 package com.restaurant.repository;
 
+import com.restaurant.dto.RestaurantTableDTO;
 import com.restaurant.entity.RestaurantTable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface TableRepository extends JpaRepository<RestaurantTable, Long> {
+
+    String DTO = "new com.restaurant.dto.RestaurantTableDTO(" +
+                 "t.id, t.restaurant.id, t.tableNumber, t.capacity, t.available)";
+
     List<RestaurantTable> findByRestaurantId(Long restaurantId);
-}
\ No newline at end of file
+
+    // 读路径直接投影成 DTO，不进入持久化上下文
+    @Query("SELECT " + DTO + " FROM RestaurantTable t WHERE t.id = :id")
+    Optional<RestaurantTableDTO> findDtoById(@Param("id") Long id);
+
+    @Query("SELECT " + DTO + " FROM RestaurantTable t WHERE t.id IN :ids")
+    List<RestaurantTableDTO> findDtoByIdIn(@Param("ids") Collection<Long> ids);
+
+    /** Bookable tables of a restaurant, smallest first (table assignment picks the first free one). */
+    @Query("SELECT " + DTO + " FROM RestaurantTable t " +
+           "WHERE t.restaurant.id = :restaurantId AND t.available = true " +
+           "ORDER BY t.capacity, t.tableNumber, t.id")
+    List<RestaurantTableDTO> findAvailableDtoByRestaurantIdOrderByCapacity(@Param("restaurantId") Long restaurantId);
+
+    /** Keyset page ordered by id, optionally restricted to one restaurant. */
+    @Query("SELECT " + DTO + " FROM RestaurantTable t " +
+           "WHERE t.id > :after " +
+           "AND (:restaurantId IS NULL OR t.restaurant.id = :restaurantId) " +
+           "ORDER BY t.id")
+    List<RestaurantTableDTO> findDtoPage(@Param("after") Long after,
+                                         @Param("restaurantId") Long restaurantId,
+                                         Limit limit);
+}
@@ -0,0 +1,122 @@
+package com.restaurant.repository;
+
+import com.restaurant.dto.WaitlistEntryDTO;
+import com.restaurant.entity.WaitlistEntry;
+import com.restaurant.entity.WaitlistStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    String DTO = "new com.restaurant.dto.WaitlistEntryDTO(" +
+                 "w.id, w.customer.id, w.restaurant.id, w.numGuests, w.durationMinutes, " +
+                 "w.earliestStart, w.latestStart, w.status, w.reservationId, w.createdAt)";
+
+    @Query("SELECT " + DTO + " FROM WaitlistEntry w WHERE w.id = :id")
+    Optional<WaitlistEntryDTO> findDtoById(@Param("id") Long id);
+
+    /** Keyset page ordered by id; filters are optional (null = not filtered). */
+    @Query("SELECT " + DTO + " FROM WaitlistEntry w " +
+           "WHERE w.id > :after " +
+           "AND (:restaurantId IS NULL OR w.restaurant.id = :restaurantId) " +
+           "AND (:status IS NULL OR w.status = :status) " +
+           "ORDER BY w.id")
+    List<WaitlistEntryDTO> findDtoPage(@Param("after") Long after,
+                                       @Param("restaurantId") Long restaurantId,
+                                       @Param("status") WaitlistStatus status,
+                                       Limit limit);
+
+    /**
+     * Waiting parties of the restaurant that fit {@code capacity} seats and accept a start
+     * time in [from, to). Best match first: the largest party (fills the freed table best),
+     * then first come, first served.
+     */
+    @Query("SELECT " + DTO + " FROM WaitlistEntry w " +
+           "WHERE w.restaurant.id = :restaurantId " +
+           "AND w.status = com.restaurant.entity.WaitlistStatus.WAITING " +
+           "AND w.numGuests <= :capacity " +
+           "AND w.latestStart >= :from AND w.earliestStart < :to " +
+           "ORDER BY w.numGuests DESC, w.createdAt, w.id")
+    List<WaitlistEntryDTO> findCandidates(@Param("restaurantId") Long restaurantId,
+                                          @Param("capacity") int capacity,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to,
+                                          Limit limit);
+
+    /**
+     * Compare-and-set on the status; returns 0 if the entry was no longer in {@code from}.
+     * Used to claim an entry before booking it, so two promotions never book the same party.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = :to WHERE w.id = :id AND w.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") WaitlistStatus from,
+                   @Param("to") WaitlistStatus to);
+
+    /**
+     * Claims a waiting entry for promotion (compare-and-set WAITING -> PROMOTED) and records
+     * when, so a claim that never gets its reservation id can be found and released later.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = com.restaurant.entity.WaitlistStatus.PROMOTED, " +
+           "w.promotedAt = :now " +
+           "WHERE w.id = :id AND w.status = com.restaurant.entity.WaitlistStatus.WAITING")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Records the reservation the claim made at {@code claimedAt} was booked into. Called inside
+     * the transaction that inserts the reservation, so an entry is never left claimed with a
+     * committed booking. Returns 0 if that claim is gone (released by the sweeper): the booking
+     * must then be rolled back, as the entry may already be promoted by someone else.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.reservationId = :reservationId " +
+           "WHERE w.id = :id AND w.status = com.restaurant.entity.WaitlistStatus.PROMOTED " +
+           "AND w.reservationId IS NULL AND w.promotedAt = :claimedAt")
+    int linkReservation(@Param("id") Long id,
+                        @Param("claimedAt") LocalDateTime claimedAt,
+                        @Param("reservationId") Long reservationId);
+
+    /**
+     * Puts an entry back on the waitlist after a failed booking, only if it still holds the
+     * claim made at {@code claimedAt}: a claim the sweeper released and someone else took
+     * since is left alone.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = com.restaurant.entity.WaitlistStatus.WAITING, " +
+           "w.promotedAt = NULL " +
+           "WHERE w.id = :id AND w.status = com.restaurant.entity.WaitlistStatus.PROMOTED " +
+           "AND w.reservationId IS NULL AND w.promotedAt = :claimedAt")
+    int releaseClaim(@Param("id") Long id, @Param("claimedAt") LocalDateTime claimedAt);
+
+    /** Entries claimed before {@code cutoff} that still have no reservation, oldest first. */
+    @Query("SELECT " + DTO + " FROM WaitlistEntry w " +
+           "WHERE w.status = com.restaurant.entity.WaitlistStatus.PROMOTED " +
+           "AND w.reservationId IS NULL AND w.promotedAt < :cutoff " +
+           "ORDER BY w.promotedAt")
+    List<WaitlistEntryDTO> findUnfinishedClaims(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    /**
+     * Puts an unfinished claim back on the waitlist. Same conditions as findUnfinishedClaims,
+     * re-checked here, so a promotion that completed in the meantime is left alone.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = com.restaurant.entity.WaitlistStatus.WAITING, " +
+           "w.promotedAt = NULL " +
+           "WHERE w.id = :id AND w.status = com.restaurant.entity.WaitlistStatus.PROMOTED " +
+           "AND w.reservationId IS NULL AND w.promotedAt < :cutoff")
+    int releaseUnfinishedClaim(@Param("id") Long id, @Param("cutoff") LocalDateTime cutoff);
+}
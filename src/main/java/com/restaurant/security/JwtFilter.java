@@ -1,27 +1,32 @@
 package com.restaurant.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final VerifiedTokenCache tokenCache;
+    private final MeterRegistry meterRegistry;
 
-    public JwtFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    public JwtFilter(JwtUtil jwtUtil, VerifiedTokenCache tokenCache, MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.tokenCache = tokenCache;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -32,16 +37,51 @@ public class JwtFilter extends OncePerRequestFilter {
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            if (jwtUtil.validateToken(token)) {
-                String username = jwtUtil.extractUsername(token);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                
+            VerifiedTokenCache.VerifiedToken verified = timedVerify(token);
+
+            if (verified != null) {
+                // 身份和角色都来自已签名的 Token，不再每个请求查 users 表
                 UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                
+                        new UsernamePasswordAuthenticationToken(
+                                verified.username(),
+                                null,
+                                List.of(new SimpleGrantedAuthority(verified.role())));
+
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
         chain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /** auth.jwt.validation{result = cached | verified | rejected} */
+    private VerifiedTokenCache.VerifiedToken timedVerify(String token) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        String result = "cached";
+        VerifiedTokenCache.VerifiedToken verified = tokenCache.get(token);
+        if (verified == null) {
+            verified = verify(token);
+            result = verified == null ? "rejected" : "verified";
+        }
+
+        sample.stop(Timer.builder("auth.jwt.validation")
+                .tag("result", result)
+                .register(meterRegistry));
+        return verified;
+    }
+
+    /** Full signature check for a token that is not in the cache yet. */
+    private VerifiedTokenCache.VerifiedToken verify(String token) {
+        Claims claims = jwtUtil.parseToken(token);
+        if (claims == null || claims.getSubject() == null || claims.get("role") == null) {
+            return null;
+        }
+
+        VerifiedTokenCache.VerifiedToken verified = new VerifiedTokenCache.VerifiedToken(
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getExpiration().getTime());
+        tokenCache.put(token, verified);
+        return verified;
+    }
+}
@@ -1,6 +1,8 @@
 package com.restaurant.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -19,6 +21,9 @@ public class JwtUtil {
     private static final String SECRET = "MySuperSecretKeyForRestaurantApi2025Level2MustBeLong";
     private static final Key KEY = Keys.hmacShaKeyFor(SECRET.getBytes());
 
+    // JwtParser 是不可变、线程安全的，构建一次即可复用
+    private static final JwtParser PARSER = Jwts.parserBuilder().setSigningKey(KEY).build();
+
     public String generateToken(String username, String role) {
         Map<String, Object> claims = new HashMap<>();
         claims.put("role", role); // 把角色放进 Token 里
@@ -31,15 +36,22 @@ public class JwtUtil {
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifies signature and expiry and returns the claims in a single parse,
+     * or null if the token is invalid.
+     */
+    public Claims parseToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(KEY).build().parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            return PARSER.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
         }
     }
 
+    public boolean validateToken(String token) {
+        return parseToken(token) != null;
+    }
+
     public String extractUsername(String token) {
         return extractClaims(token).getSubject();
     }
@@ -49,6 +61,6 @@ public class JwtUtil {
     }
 
     private Claims extractClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(KEY).build().parseClaimsJws(token).getBody();
+        return PARSER.parseClaimsJws(token).getBody();
     }
-}
\ No newline at end of file
+}
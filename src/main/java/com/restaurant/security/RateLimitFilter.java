@@ -0,0 +1,122 @@
+package com.restaurant.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client rate limiting for /api/**, right after {@link JwtFilter}: authenticated requests
+ * are limited per JWT subject, anonymous ones (login / register) per client IP.
+ * Over the limit the request is answered with 429 and Retry-After before it reaches a controller.
+ *
+ * Three routes, each with its own buckets:
+ *  - auth: /api/auth/**, per IP (every attempt costs a BCrypt hash)
+ *  - reservation-writes: POST / PUT / DELETE on /api/reservations/** (conflict checks, row locks)
+ *  - default: everything else under /api
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+
+    private final RateLimiter authLimiter;
+    private final RateLimiter reservationWriteLimiter;
+    private final RateLimiter defaultLimiter;
+
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(@Value("${rate-limit.enabled:true}") boolean enabled,
+                           @Value("${rate-limit.max-keys:100000}") long maxKeys,
+                           @Value("${rate-limit.auth.per-second:1}") double authPerSecond,
+                           @Value("${rate-limit.auth.burst:10}") int authBurst,
+                           @Value("${rate-limit.reservation-writes.per-second:10}") double reservationWritesPerSecond,
+                           @Value("${rate-limit.reservation-writes.burst:20}") int reservationWritesBurst,
+                           @Value("${rate-limit.default.per-second:50}") double defaultPerSecond,
+                           @Value("${rate-limit.default.burst:100}") int defaultBurst,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.authLimiter = new RateLimiter(authPerSecond, authBurst, maxKeys);
+        this.reservationWriteLimiter = new RateLimiter(reservationWritesPerSecond, reservationWritesBurst, maxKeys);
+        this.defaultLimiter = new RateLimiter(defaultPerSecond, defaultBurst, maxKeys);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        String uri = request.getRequestURI();
+        String route;
+        RateLimiter limiter;
+        if (uri.startsWith("/api/auth/")) {
+            route = "auth";
+            limiter = authLimiter;
+        } else if (uri.startsWith("/api/reservations") && !HttpMethod.GET.matches(request.getMethod())) {
+            route = "reservation-writes";
+            limiter = reservationWriteLimiter;
+        } else {
+            route = "default";
+            limiter = defaultLimiter;
+        }
+
+        long waitNanos = limiter.tryAcquire(clientKey(request));
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Counter.builder("http.rate.limited")
+                .description("Requests rejected with 429 by RateLimitFilter")
+                .tag("route", route)
+                .register(meterRegistry)
+                .increment();
+        reject(response, waitNanos);
+    }
+
+    /**
+     * JWT subject when JwtFilter authenticated the request, otherwise the client IP. Behind a
+     * trusted proxy getRemoteAddr() already is the forwarded client address (server.tomcat.remoteip.*).
+     */
+    private static String clientKey(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated()) {
+            return "user:" + auth.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        // 与 GlobalExceptionHandler 的错误格式一致 (过滤器里到不了 @RestControllerAdvice)
+        response.getWriter().write("{\"timestamp\":\"" + LocalDateTime.now()
+                + "\",\"status\":" + status.value()
+                + ",\"error\":\"" + status.getReasonPhrase()
+                + "\",\"message\":\"Rate limit exceeded, retry after " + retryAfterSeconds + "s.\"}");
+    }
+}
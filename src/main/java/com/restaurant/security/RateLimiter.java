@@ -0,0 +1,78 @@
+package com.restaurant.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per key (user or IP), lock-free.
+ *
+ * A bucket is a single AtomicLong: the time at which it will be full again. Taking a token
+ * pushes that time forward by one refill interval, and the request is allowed as long as the
+ * bucket would not be more than burst tokens behind. This is the usual token bucket (the GCRA
+ * formulation of it), so an acquire is one read and one compareAndSet, no lock, no timer thread.
+ *
+ * Buckets live in a bounded Caffeine cache, one entry per key, so contention is only between
+ * requests of the same client. A bucket untouched for a full refill period is full again and
+ * indistinguishable from a new one, so it expires after that; under memory pressure the least
+ * valuable keys are dropped first, which at worst gives that client a fresh bucket.
+ */
+public class RateLimiter {
+
+    /** Nanoseconds to earn one token. */
+    private final long intervalNanos;
+    /** Nanoseconds to refill a drained bucket: how far ahead "full at" may run. */
+    private final long burstNanos;
+
+    private final LongSupplier nanoClock;
+    private final Cache<String, AtomicLong> buckets;
+
+    public RateLimiter(double permitsPerSecond, int burst, long maxKeys) {
+        this(permitsPerSecond, burst, maxKeys, System::nanoTime);
+    }
+
+    RateLimiter(double permitsPerSecond, int burst, long maxKeys, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate limit needs permitsPerSecond > 0 and burst >= 1");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstNanos = intervalNanos * burst;
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .ticker(nanoClock::getAsLong)
+                .build();
+    }
+
+    /**
+     * Takes a token from key's bucket. Returns 0 if the request may go ahead, otherwise
+     * the nanoseconds until a token is available (nothing is taken in that case).
+     */
+    public long tryAcquire(String key) {
+        AtomicLong fullAt = buckets.get(key, k -> new AtomicLong(nanoClock.getAsLong()));
+
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = fullAt.get();
+            long base = current - now < 0 ? now : current; // 已经满了：从现在算起
+            long next = base + intervalNanos;
+
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    long estimatedKeys() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
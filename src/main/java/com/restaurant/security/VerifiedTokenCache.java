@@ -0,0 +1,65 @@
+package com.restaurant.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small bounded cache of tokens whose signature has already been verified,
+ * so repeated requests with the same token skip the HMAC check and claim parsing.
+ * Each entry expires together with its token; when the cache is full, Caffeine evicts
+ * the tokens least likely to be reused instead of dropping everything at once.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    static final int MAX_ENTRIES = 10_000;
+
+    public record VerifiedToken(String username, String role, long expiresAtMillis) {
+
+        boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+
+        long remainingNanos() {
+            long millis = expiresAtMillis - System.currentTimeMillis();
+            return millis <= 0 ? 0 : TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+    }
+
+    private final Cache<String, VerifiedToken> tokens = Caffeine.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .expireAfter(new Expiry<String, VerifiedToken>() {
+                @Override
+                public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+                    return verified.remainingNanos();
+                }
+
+                @Override
+                public long expireAfterUpdate(String token, VerifiedToken verified,
+                                              long currentTime, long currentDuration) {
+                    return verified.remainingNanos();
+                }
+
+                @Override
+                public long expireAfterRead(String token, VerifiedToken verified,
+                                            long currentTime, long currentDuration) {
+                    return currentDuration; // 读不延长：令牌过期就失效
+                }
+            })
+            .build();
+
+    public VerifiedToken get(String token) {
+        return tokens.getIfPresent(token);
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (verified.isExpired(System.currentTimeMillis())) {
+            return;
+        }
+        tokens.put(token, verified);
+    }
+}
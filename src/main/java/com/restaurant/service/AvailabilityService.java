@@ -0,0 +1,166 @@
+// src/main/java/com/restaurant/service/AvailabilityService.java
+package com.restaurant.service;
+
+import com.restaurant.config.StalenessTolerant;
+import com.restaurant.dto.TableAvailabilityDTO;
+import com.restaurant.entity.RestaurantTable;
+import com.restaurant.exception.BadRequestException;
+import com.restaurant.exception.ResourceNotFoundException;
+import com.restaurant.repository.BookedInterval;
+import com.restaurant.repository.ReservationRepository;
+import com.restaurant.repository.RestaurantRepository;
+import com.restaurant.repository.TableRepository;
+import com.restaurant.util.DateTimeUtils;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers "which tables are free for N guests on date D".
+ *
+ * Each table's day is a bitmap of 15-minute slots (bit i = slot starting at
+ * open + 15*i). With 52 slots between 09:00 and 22:00 a whole day fits in one
+ * long, so finding every start time with enough consecutive free slots is a
+ * handful of shifts and ANDs per table.
+ */
+@Service
+public class AvailabilityService {
+
+    private static final int SLOTS = DateTimeUtils.SLOTS_PER_DAY;
+    private static final long ALL_SLOTS = (1L << SLOTS) - 1;
+
+    private final RestaurantRepository restaurantRepository;
+    private final TableRepository tableRepository;
+    private final ReservationRepository reservationRepository;
+
+    public AvailabilityService(RestaurantRepository restaurantRepository,
+                               TableRepository tableRepository,
+                               ReservationRepository reservationRepository) {
+        this.restaurantRepository = restaurantRepository;
+        this.tableRepository = tableRepository;
+        this.reservationRepository = reservationRepository;
+    }
+
+    /* -------------------- PUBLIC API -------------------- */
+
+    @Transactional(readOnly = true)
+    @StalenessTolerant // 只是展示；真正下单时在主库上再做冲突检测
+    public List<TableAvailabilityDTO> getAvailability(Long restaurantId,
+                                                      LocalDate date,
+                                                      int partySize,
+                                                      int durationMinutes) {
+        validateRequest(date, partySize, durationMinutes);
+
+        if (!restaurantRepository.existsById(restaurantId)) {
+            throw new ResourceNotFoundException("Restaurant not found with id " + restaurantId);
+        }
+
+        List<RestaurantTable> tables = tableRepository.findByRestaurantId(restaurantId).stream()
+                .filter(RestaurantTable::isAvailable)
+                .filter(t -> t.getCapacity() >= partySize)
+                .toList();
+
+        if (tables.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDateTime dayOpen = date.atTime(DateTimeUtils.openTime());
+        LocalDateTime dayClose = date.atTime(DateTimeUtils.closeTime());
+
+        Map<Long, Long> occupiedByTable = new HashMap<>();
+        for (BookedInterval interval :
+                reservationRepository.findBookedIntervals(restaurantId,
+                        dayOpen.minusMinutes(DateTimeUtils.MAX_DURATION), dayOpen, dayClose)) {
+            occupiedByTable.merge(interval.getTableId(), occupiedMask(dayOpen, interval), (a, b) -> a | b);
+        }
+
+        int slotsNeeded = Math.ceilDiv(durationMinutes, DateTimeUtils.SLOT_MINUTES);
+        long notBefore = startableMask(dayOpen, LocalDateTime.now());
+
+        List<TableAvailabilityDTO> result = new ArrayList<>(tables.size());
+        for (RestaurantTable table : tables) {
+            long occupied = occupiedByTable.getOrDefault(table.getId(), 0L);
+            long starts = freeStarts(occupied, slotsNeeded) & notBefore;
+            result.add(convertToDTO(table, starts));
+        }
+        return result;
+    }
+
+    /* -------------------- BITMAP HELPERS -------------------- */
+
+    /**
+     * Bit s is set when slots s .. s+slotsNeeded-1 are all free and inside opening hours.
+     */
+    static long freeStarts(long occupied, int slotsNeeded) {
+        long free = ~occupied & ALL_SLOTS;
+        long starts = free;
+        for (int i = 1; i < slotsNeeded; i++) {
+            starts &= free >>> i;
+        }
+        return starts;
+    }
+
+    /** Slots touched by [start, end), clamped to the opening window. */
+    static long occupiedMask(LocalDateTime dayOpen, BookedInterval interval) {
+        long startMinutes = Duration.between(dayOpen, interval.getStartTime()).toMinutes();
+        long endMinutes = Duration.between(dayOpen, interval.getEndTime()).toMinutes();
+
+        int from = (int) Math.max(0, Math.floorDiv(startMinutes, DateTimeUtils.SLOT_MINUTES));
+        int to = (int) Math.min(SLOTS, Math.ceilDiv(endMinutes, DateTimeUtils.SLOT_MINUTES));
+
+        return from >= to ? 0L : rangeMask(from, to);
+    }
+
+    /** Slots whose start is not in the past. */
+    private static long startableMask(LocalDateTime dayOpen, LocalDateTime now) {
+        if (!now.isAfter(dayOpen)) {
+            return ALL_SLOTS;
+        }
+        long firstSlot = Math.ceilDiv(Duration.between(dayOpen, now).toMinutes(), DateTimeUtils.SLOT_MINUTES);
+        return firstSlot >= SLOTS ? 0L : rangeMask((int) firstSlot, SLOTS);
+    }
+
+    /** Bits [from, to). */
+    private static long rangeMask(int from, int to) {
+        return ((1L << (to - from)) - 1) << from;
+    }
+
+    /* -------------------- VALIDATION / DTO -------------------- */
+
+    private void validateRequest(LocalDate date, int partySize, int durationMinutes) {
+        if (date == null) {
+            throw new BadRequestException("date is required.");
+        }
+        if (partySize <= 0) {
+            throw new BadRequestException("partySize must be greater than 0.");
+        }
+        if (durationMinutes < DateTimeUtils.MIN_DURATION || durationMinutes > DateTimeUtils.MAX_DURATION) {
+            throw new BadRequestException(
+                    "durationMinutes must be between " + DateTimeUtils.MIN_DURATION +
+                    " and " + DateTimeUtils.MAX_DURATION + ".");
+        }
+    }
+
+    private TableAvailabilityDTO convertToDTO(RestaurantTable table, long starts) {
+        List<LocalTime> times = new ArrayList<>(Long.bitCount(starts));
+        for (long bits = starts; bits != 0; bits &= bits - 1) {
+            times.add(DateTimeUtils.slotStart(Long.numberOfTrailingZeros(bits)));
+        }
+
+        TableAvailabilityDTO dto = new TableAvailabilityDTO();
+        dto.setTableId(table.getId());
+        dto.setTableNumber(table.getTableNumber());
+        dto.setCapacity(table.getCapacity());
+        dto.setFreeStartTimes(times);
+        return dto;
+    }
+}
@@ -0,0 +1,207 @@
+package com.restaurant.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.restaurant.dto.CustomerDTO;
+import com.restaurant.dto.ImportReportDTO;
+import com.restaurant.dto.ReservationDTO;
+import com.restaurant.dto.RestaurantTableDTO;
+import com.restaurant.exception.BadRequestException;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of customers, tables and reservations from CSV (header row + one record per
+ * line) or JSONL (one JSON object per line).
+ *
+ * Input is read line by line, so memory is bounded by one chunk. Every row is checked with
+ * the same rules as the single-item endpoints; valid rows are written CHUNK_SIZE at a time
+ * through the services' batch methods (one transaction and JDBC-batched inserts per chunk).
+ * If a chunk is rejected as a whole (e.g. a reservation conflict), its rows are retried one
+ * by one so the report names exactly the rows that failed.
+ */
+@Service
+public class BulkImportService {
+
+    public enum Format { CSV, JSONL }
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final CustomerService customerService;
+    private final RestaurantTableService tableService;
+    private final ReservationService reservationService;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+    private final Validator validator;
+
+    public BulkImportService(CustomerService customerService,
+                             RestaurantTableService tableService,
+                             ReservationService reservationService,
+                             ObjectMapper objectMapper,
+                             Validator validator) {
+        this.customerService = customerService;
+        this.tableService = tableService;
+        this.reservationService = reservationService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+
+        CsvMapper mapper = new CsvMapper();
+        mapper.findAndRegisterModules();
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.csvMapper = mapper;
+    }
+
+    /* -------------------- PUBLIC API -------------------- */
+
+    // 故意不声明事务 (也不用 NOT_SUPPORTED)：每个 chunk 在 service 的批量方法里单独提交，
+    // 读上传流期间不占连接；同步作用域会把一个 EntityManager 绑到整个导入上，已导入的实体全堆在里面
+    public ImportReportDTO importCustomers(InputStream in, Format format) throws IOException {
+        return run(in, format, CustomerDTO.class,
+                this::validateBean,
+                customerService::createCustomers,
+                customerService::createCustomer);
+    }
+
+    public ImportReportDTO importTables(InputStream in, Format format) throws IOException {
+        return run(in, format, RestaurantTableDTO.class,
+                dto -> {
+                    validateBean(dto);
+                    RestaurantTableService.validateCreateInput(dto);
+                },
+                tableService::createTables,
+                tableService::createTable);
+    }
+
+    public ImportReportDTO importReservations(InputStream in, Format format) throws IOException {
+        return run(in, format, ReservationDTO.class,
+                dto -> {
+                    ReservationService.validateCreateFields(dto);
+                    ReservationService.validateTimeSlot(dto.getReservationTime(), dto.getDurationMinutes());
+                },
+                reservationService::createReservations,
+                reservationService::createReservation);
+    }
+
+    /* -------------------- PIPELINE -------------------- */
+
+    private <T> ImportReportDTO run(InputStream in,
+                                    Format format,
+                                    Class<T> type,
+                                    Consumer<T> validate,
+                                    Function<List<T>, ?> saveChunk,
+                                    Consumer<T> saveOne) throws IOException {
+
+        ImportReportDTO report = new ImportReportDTO();
+        BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        ObjectReader reader = rowReader(lines, format, type);
+
+        List<T> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<Long> chunkRows = new ArrayList<>(CHUNK_SIZE);
+        long row = 0;
+
+        for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+            if (line.isBlank()) {
+                continue;
+            }
+            row++;
+            try {
+                T item = reader.readValue(line);
+                validate.accept(item);
+                chunk.add(item);
+                chunkRows.add(row);
+            } catch (JsonProcessingException ex) {
+                report.addError(row, "Malformed row: " + ex.getOriginalMessage());
+            } catch (RuntimeException ex) {
+                report.addError(row, ex.getMessage());
+            }
+
+            if (chunk.size() == CHUNK_SIZE) {
+                flush(chunk, chunkRows, saveChunk, saveOne, report);
+            }
+        }
+        flush(chunk, chunkRows, saveChunk, saveOne, report);
+
+        report.setTotalRows(row);
+        return report;
+    }
+
+    private <T> void flush(List<T> chunk,
+                           List<Long> chunkRows,
+                           Function<List<T>, ?> saveChunk,
+                           Consumer<T> saveOne,
+                           ImportReportDTO report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        // 交给 service 的是副本：下面要清空 chunk 复用，不能改掉调用方手里的参数
+        List<T> items = List.copyOf(chunk);
+        try {
+            saveChunk.apply(items);
+            report.setImported(report.getImported() + items.size());
+        } catch (RuntimeException chunkFailure) {
+            // 整批被拒：逐行重试，找出具体是哪几行
+            for (int i = 0; i < items.size(); i++) {
+                try {
+                    saveOne.accept(items.get(i));
+                    report.setImported(report.getImported() + 1);
+                } catch (RuntimeException ex) {
+                    report.addError(chunkRows.get(i), ex.getMessage());
+                }
+            }
+        }
+        chunk.clear();
+        chunkRows.clear();
+    }
+
+    /**
+     * JSONL rows bind with the application's ObjectMapper; CSV rows bind by the column
+     * names of the header line, which is consumed here and parsed with the same CSV rules
+     * as the rows (quoted names, embedded commas).
+     */
+    private ObjectReader rowReader(BufferedReader lines, Format format, Class<?> type) throws IOException {
+        if (format == Format.JSONL) {
+            return objectMapper.readerFor(type);
+        }
+
+        String header = lines.readLine();
+        if (header == null || header.isBlank()) {
+            throw new BadRequestException("CSV input must start with a header row.");
+        }
+        // 没有 schema 时 CsvParser 把一行当作数组读出来
+        String[] columns = csvMapper.readerFor(String[].class).readValue(header);
+        CsvSchema.Builder schema = CsvSchema.builder();
+        for (String column : columns) {
+            schema.addColumn(column.trim());
+        }
+        return csvMapper.readerFor(type).with(schema.build());
+    }
+
+    private void validateBean(Object dto) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            throw new BadRequestException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(" ")));
+        }
+    }
+}
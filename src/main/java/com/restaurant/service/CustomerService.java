@@ -1,39 +1,70 @@
 // src/main/java/com/restaurant/service/CustomerService.java
 package com.restaurant.service;
 
+import com.restaurant.config.StalenessTolerant;
+import com.restaurant.dto.CursorPage;
 import com.restaurant.dto.CustomerDTO;
 import com.restaurant.entity.Customer;
+import com.restaurant.exception.BadRequestException;
 import com.restaurant.exception.ResourceNotFoundException;
 import com.restaurant.repository.CustomerRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "restaurant.service", histogram = true)
 public class CustomerService {
 
+    private static final int MAX_BATCH_SIZE = 500;
+
     @Autowired
     private CustomerRepository customerRepository;
 
-    public List<CustomerDTO> getAllCustomers() {
-        return customerRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    @StalenessTolerant // 列表没有 ETag，晚几百毫秒看到新客户可以接受
+    public CursorPage<CustomerDTO> getCustomers(Long after, Integer limit) {
+        int pageSize = CursorPage.normalizeLimit(limit);
+        List<CustomerDTO> rows = customerRepository
+                .findDtoPage(after == null ? 0L : after, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, CustomerDTO::getId);
     }
 
+    @Transactional(readOnly = true)
     public CustomerDTO getCustomerById(Long id) {
-        Customer customer = customerRepository.findById(id)
+        return customerRepository.findDtoById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id " + id));
-        return convertToDTO(customer);
     }
 
+    @Transactional
     public CustomerDTO createCustomer(CustomerDTO customerDTO) {
         Customer customer = convertToEntity(customerDTO);
         return convertToDTO(customerRepository.save(customer));
     }
 
+    // 一个事务内 saveAll，序列池化主键 + hibernate.jdbc.batch_size 让插入按批发送
+    @Transactional
+    public List<CustomerDTO> createCustomers(List<CustomerDTO> customerDTOs) {
+        if (customerDTOs == null || customerDTOs.isEmpty()) {
+            throw new BadRequestException("Batch must contain at least one item.");
+        }
+        if (customerDTOs.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Batch must not contain more than " + MAX_BATCH_SIZE + " items.");
+        }
+        List<Customer> customers = customerDTOs.stream()
+                .map(this::convertToEntity)
+                .collect(Collectors.toList());
+        return customerRepository.saveAll(customers).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
     public CustomerDTO updateCustomer(Long id, CustomerDTO customerDTO) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id " + id));
@@ -43,13 +74,14 @@ public class CustomerService {
         return convertToDTO(customerRepository.save(customer));
     }
 
+    @Transactional
     public void deleteCustomer(Long id) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer not found with id " + id));
         customerRepository.delete(customer);
     }
 
-    private CustomerDTO convertToDTO(Customer customer) {
+    CustomerDTO convertToDTO(Customer customer) {
         CustomerDTO dto = new CustomerDTO();
         dto.setId(customer.getId());
         dto.setName(customer.getName());
@@ -0,0 +1,66 @@
+package com.restaurant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends outbox messages to a local NDJSON file (one message per line), for local
+ * testing and debugging without a broker. Enabled by setting outbox.sinks.file.path.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sinks.file.path")
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter lineWriter;
+
+    public FileOutboxSink(@Value("${outbox.sinks.file.path}") Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    /** The dispatcher calls sinks from a single thread, so appends never interleave. */
+    @Override
+    public void publish(List<OutboxMessage> batch) throws IOException {
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (OutboxMessage message : batch) {
+                out.write(lineWriter.writeValueAsString(toJson(message)));
+                out.write('\n');
+            }
+        }
+    }
+
+    // payload 本身已经是 JSON，按对象嵌进去而不是当字符串转义
+    private ObjectNode toJson(OutboxMessage message) throws IOException {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", message.id());
+        node.put("aggregateType", message.aggregateType());
+        node.put("aggregateId", message.aggregateId());
+        node.put("eventType", message.eventType());
+        node.put("createdAt", message.createdAt().toString());
+        node.set("payload", objectMapper.readTree(message.payload()));
+        return node;
+    }
+}
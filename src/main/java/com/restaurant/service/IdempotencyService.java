@@ -0,0 +1,283 @@
+package com.restaurant.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.restaurant.entity.IdempotencyRecord;
+import com.restaurant.exception.BadRequestException;
+import com.restaurant.exception.ConflictException;
+import com.restaurant.exception.UnprocessableEntityException;
+import com.restaurant.repository.IdempotencyRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for create endpoints: the first request with a key runs normally
+ * and its response is stored; a retry with the same key gets that response back
+ * (Idempotent-Replayed: true) without calling the service again.
+ *
+ * Completed responses live in a bounded in-memory cache (the common case: the client retries
+ * against the same instance within seconds) backed by the idempotency_key table, which also
+ * serves as the cross-instance lock: the first request inserts a claim row, and a concurrent
+ * duplicate hitting the primary key gets 409 instead of running twice. A failed request
+ * releases its claim so the client can retry. Keys are scoped per user and endpoint, and
+ * reusing one with a different body is rejected with 422.
+ *
+ * A claim is a lease of claim-timeout-seconds that its instance renews on a heartbeat for
+ * as long as the request runs, however long that is; only a claim whose instance died
+ * expires and can be taken over. The lease is also kept until the response is stored: if
+ * storing it fails, the heartbeat retries, so a retry meanwhile gets 409 (or the cached
+ * response on this instance) rather than running the action a second time. Every change
+ * to a claim names its claim time, so an instance never touches a claim taken over from it.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter compactWriter;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+
+    private final Cache<String, StoredResponse> completed;
+
+    /** Claims this instance holds, by scope: still running, or finished but not stored yet. */
+    private final Map<String, HeldClaim> held = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRepository repository,
+                              ObjectMapper objectMapper,
+                              @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${idempotency.claim-timeout-seconds:60}") long claimTimeoutSeconds,
+                              @Value("${idempotency.cache.maximum-size:10000}") long maximumSize) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.compactWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.claimTimeout = Duration.ofSeconds(claimTimeoutSeconds);
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /** A completed request: what the first call returned, and the hash of its request body. */
+    record StoredResponse(String requestHash, int status, String body) {
+    }
+
+    /** A claim of this instance: its claim time (identifies it) and, once finished, the response to store. */
+    private record HeldClaim(LocalDateTime claimedAt, StoredResponse result) {
+    }
+
+    /**
+     * Runs action at most once per (user, route, key) and replays its response afterwards.
+     * Without a key the action simply runs.
+     */
+    public <T> ResponseEntity<T> execute(String key,
+                                         String route,
+                                         Object request,
+                                         Class<T> responseType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters.");
+        }
+
+        String scope = currentUser() + " " + route + " " + key;
+        String requestHash = hash(request);
+
+        StoredResponse stored = completed.getIfPresent(scope);
+        // 认领时间同时是这次认领的标识 (截到毫秒，和库里存的一致)
+        LocalDateTime claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        if (stored == null) {
+            stored = findOrClaim(scope, requestHash, claimedAt);
+        }
+        if (stored != null) {
+            return replay(stored, requestHash, responseType);
+        }
+
+        // 认领成功：真正执行一次，执行期间由 heartbeat 续约
+        held.put(scope, new HeldClaim(claimedAt, null));
+        ResponseEntity<T> response;
+        StoredResponse result;
+        try {
+            response = action.get();
+            result = new StoredResponse(
+                    requestHash, response.getStatusCode().value(), toJson(response.getBody()));
+        } catch (RuntimeException ex) {
+            held.remove(scope);
+            repository.releaseClaim(scope, claimedAt);
+            throw ex;
+        }
+
+        // 先进本机缓存：即使响应还没存进库，本机的重试也直接重放
+        completed.put(scope, result);
+        HeldClaim finished = new HeldClaim(claimedAt, result);
+        held.put(scope, finished);
+        store(scope, finished);
+        return response;
+    }
+
+    /**
+     * Renews the lease of every claim this instance holds, and retries storing responses
+     * that could not be stored yet. Must run well within claim-timeout-seconds.
+     */
+    @Scheduled(fixedDelayString = "${idempotency.claim-heartbeat-ms:15000}")
+    public void heartbeat() {
+        held.forEach((scope, claim) -> {
+            if (claim.result() != null) {
+                store(scope, claim);
+                return;
+            }
+            try {
+                if (repository.renewClaim(scope, claim.claimedAt(), LocalDateTime.now().plus(claimTimeout)) == 0) {
+                    held.remove(scope, claim);
+                    log.warn("Idempotency claim {} is gone while its request is still running", scope);
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Renewing idempotency claim {} failed, retrying with the next heartbeat: {}",
+                        scope, ex.getMessage());
+            }
+        });
+    }
+
+    @Scheduled(cron = "${idempotency.cleanup-cron:0 15 * * * *}")
+    public void purgeExpired() {
+        repository.deleteExpired(LocalDateTime.now());
+    }
+
+    /* -------------------- HELPERS -------------------- */
+
+    /**
+     * Stores a finished request's response under its claim and lets go of the claim. On
+     * failure the claim stays held (and renewed), and the next heartbeat tries again.
+     */
+    private void store(String scope, HeldClaim claim) {
+        StoredResponse result = claim.result();
+        try {
+            if (repository.complete(scope, claim.claimedAt(), result.status(), result.body(),
+                    LocalDateTime.now().plus(ttl)) == 0) {
+                log.error("Idempotency claim {} was lost before its response could be stored", scope);
+            }
+            held.remove(scope, claim);
+        } catch (RuntimeException ex) {
+            log.warn("Storing the idempotent response for {} failed, retrying with the next heartbeat: {}",
+                    scope, ex.getMessage());
+        }
+    }
+
+    /** The stored response of an earlier request, or null once this request holds the claim. */
+    private StoredResponse findOrClaim(String scope, String requestHash, LocalDateTime now) {
+        Optional<IdempotencyRecord> existing = repository.findById(scope);
+        if (existing.isPresent()) {
+            if (existing.get().getExpiresAt().isAfter(now)) {
+                return storedOrInFlight(existing.get(), requestHash);
+            }
+            // 过期的响应，或认领方已经停止续约 (实例崩溃) 的认领
+            repository.deleteIfExpired(scope, now);
+        }
+
+        IdempotencyRecord claim = new IdempotencyRecord();
+        claim.setScope(scope);
+        claim.setRequestHash(requestHash);
+        claim.setCreatedAt(now);
+        claim.setExpiresAt(now.plus(claimTimeout));
+        try {
+            repository.saveAndFlush(claim);
+            return null;
+        } catch (DataIntegrityViolationException ex) {
+            // 并发的重复请求先插入了
+            return repository.findById(scope)
+                    .map(record -> storedOrInFlight(record, requestHash))
+                    .orElseThrow(() -> inFlight());
+        }
+    }
+
+    private StoredResponse storedOrInFlight(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw reused();
+        }
+        if (!record.isCompleted()) {
+            throw inFlight();
+        }
+        StoredResponse stored = new StoredResponse(
+                record.getRequestHash(), record.getResponseStatus(), record.getResponseBody());
+        completed.put(record.getScope(), stored);
+        return stored;
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw reused();
+        }
+        try {
+            T body = stored.body() == null ? null : objectMapper.readValue(stored.body(), responseType);
+            return ResponseEntity.status(stored.status())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot read stored idempotent response", ex);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(compactWriter.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Cannot fingerprint request", ex);
+        }
+    }
+
+    private String toJson(Object body) {
+        if (body == null) {
+            return null;
+        }
+        try {
+            return compactWriter.writeValueAsString(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot store idempotent response", ex);
+        }
+    }
+
+    private static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth == null ? "anonymous" : auth.getName();
+    }
+
+    private static ConflictException inFlight() {
+        return new ConflictException("A request with this " + HEADER + " is still being processed.");
+    }
+
+    private static UnprocessableEntityException reused() {
+        return new UnprocessableEntityException(HEADER + " was already used with a different request.");
+    }
+}
@@ -0,0 +1,148 @@
+package com.restaurant.service;
+
+import com.restaurant.entity.OutboxEvent;
+import com.restaurant.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox in batches to every {@link OutboxSink}.
+ *
+ * Each batch is one transaction: read the oldest undelivered rows, hand them to the sinks,
+ * mark them published. If a sink throws, the transaction rolls back and the same batch is
+ * retried on the next run (at-least-once; a failing batch holds back later events, which
+ * keeps them in order). Only one instance dispatches at a time (transaction-scoped advisory
+ * lock): delivering strictly in id order is what keeps each reservation's events ordered,
+ * and competing dispatchers skipping each other's rows would break that.
+ *
+ * Lag metrics: outbox.delivery.lag (created -> published), outbox.events.pending.
+ * PostgreSQL only, so it is switched off by property (tests run on H2).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.dispatcher.enabled", havingValue = "true")
+public class OutboxDispatcher {
+
+    /** Arbitrary key for pg_try_advisory_xact_lock, shared by all instances. */
+    private static final long LOCK_KEY = 0x4F55_5442_4F58_0001L;
+
+    /** Batches per run, so one run cannot hold the scheduler thread indefinitely. */
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    private final OutboxRepository outboxRepository;
+    private final List<OutboxSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final Duration retention;
+
+    private final Counter published;
+    private final Counter failures;
+    private final Timer deliveryLag;
+    private final AtomicLong pending = new AtomicLong();
+
+    public OutboxDispatcher(OutboxRepository outboxRepository,
+                            List<OutboxSink> sinks,
+                            TransactionTemplate transactionTemplate,
+                            JdbcTemplate jdbcTemplate,
+                            @Value("${outbox.dispatcher.batch-size:200}") int batchSize,
+                            @Value("${outbox.dispatcher.retention-hours:72}") long retentionHours,
+                            MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.retention = Duration.ofHours(retentionHours);
+
+        this.published = Counter.builder("outbox.events.published")
+                .description("Outbox events delivered to all sinks")
+                .register(meterRegistry);
+        this.failures = Counter.builder("outbox.dispatch.failures")
+                .description("Outbox batches rolled back because a sink failed")
+                .register(meterRegistry);
+        this.deliveryLag = Timer.builder("outbox.delivery.lag")
+                .description("Time from writing an outbox event to delivering it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("outbox.events.pending", pending, AtomicLong::get)
+                .description("Outbox events not delivered yet (as of the last dispatcher run)")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.dispatcher.interval-ms:500}")
+    public void dispatch() {
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+                if (dispatchBatch() < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            failures.increment();
+            log.warn("Outbox dispatch failed, will retry: {}", ex.getMessage());
+        }
+        pending.set(outboxRepository.countByPublishedAtIsNull());
+    }
+
+    /** Delivers one batch; returns how many events it delivered (0 if another instance holds the lock). */
+    int dispatchBatch() {
+        Integer delivered = transactionTemplate.execute(status -> {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY))) {
+                return 0;
+            }
+
+            List<OutboxEvent> batch = outboxRepository.findPending(Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            List<OutboxMessage> messages = batch.stream().map(OutboxMessage::of).toList();
+            for (OutboxSink sink : sinks) {
+                publish(sink, messages);
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            outboxRepository.markPublished(batch.stream().map(OutboxEvent::getId).toList(), now);
+            batch.forEach(e -> deliveryLag.record(Duration.between(e.getCreatedAt(), now)));
+            published.increment(batch.size());
+            return batch.size();
+        });
+        return delivered == null ? 0 : delivered;
+    }
+
+    /** Drops delivered events past the retention window. */
+    @Scheduled(cron = "${outbox.dispatcher.cleanup-cron:0 0 4 * * *}")
+    public void cleanup() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        log.debug("Deleted {} delivered outbox events", deleted);
+    }
+
+    private void publish(OutboxSink sink, List<OutboxMessage> messages) {
+        try {
+            sink.publish(messages);
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new IllegalStateException("Outbox sink '" + sink.name() + "' failed", ex);
+        }
+    }
+}
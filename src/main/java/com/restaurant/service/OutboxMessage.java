@@ -0,0 +1,22 @@
+package com.restaurant.service;
+
+import com.restaurant.entity.OutboxEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * What sinks receive for each outbox row; payload is the JSON written by OutboxWriter.
+ * Delivery is at-least-once, so consumers should de-duplicate on id.
+ */
+public record OutboxMessage(Long id,
+                            String aggregateType,
+                            Long aggregateId,
+                            String eventType,
+                            String payload,
+                            LocalDateTime createdAt) {
+
+    static OutboxMessage of(OutboxEvent e) {
+        return new OutboxMessage(e.getId(), e.getAggregateType(), e.getAggregateId(),
+                e.getEventType(), e.getPayload(), e.getCreatedAt());
+    }
+}
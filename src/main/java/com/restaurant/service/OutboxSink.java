@@ -0,0 +1,17 @@
+package com.restaurant.service;
+
+import java.util.List;
+
+/**
+ * A downstream destination for outbox events (message broker, webhook, file, ...).
+ *
+ * publish is called by OutboxDispatcher with a batch in id order. Throwing leaves the whole
+ * batch undelivered, and it is retried on the next run, so a sink must tolerate seeing
+ * messages it already accepted.
+ */
+public interface OutboxSink {
+
+    String name();
+
+    void publish(List<OutboxMessage> batch) throws Exception;
+}
@@ -0,0 +1,68 @@
+package com.restaurant.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.restaurant.config.StalenessTolerant;
+import com.restaurant.dto.ReservationDTO;
+import com.restaurant.dto.ReservationFilter;
+import com.restaurant.repository.ReservationRepository;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Streams reservations as NDJSON (one JSON object per line) in constant memory: rows come
+ * from a server-side cursor and are written one by one through a single JsonGenerator,
+ * so nothing proportional to the result size is ever held.
+ */
+@Service
+public class ReservationExportService {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private final ReservationRepository reservationRepository;
+    private final ObjectWriter rowWriter;
+
+    public ReservationExportService(ReservationRepository reservationRepository, ObjectMapper objectMapper) {
+        this.reservationRepository = reservationRepository;
+        // 一行一个对象：关掉全局的 indent_output，也不要每行都 flush
+        this.rowWriter = objectMapper.writerFor(ReservationDTO.class)
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes every reservation matching the filter to out, ordered by id. An open time range
+     * is bounded like the list's (ReservationService#applyDefaultWindow).
+     * The read-only transaction keeps the cursor open (and the fetch size effective).
+     */
+    @Transactional(readOnly = true)
+    @StalenessTolerant // 长时间的全量导出放到只读副本上，不占主库连接
+    public void export(ReservationFilter filter, OutputStream out) throws IOException {
+        ReservationService.applyDefaultWindow(filter, LocalDateTime.now());
+        try (Stream<ReservationDTO> rows = reservationRepository.streamForExport(filter);
+             JsonGenerator generator = rowWriter.createGenerator(out)) {
+
+            generator.setRootValueSeparator(null); // 行之间只用换行分隔
+            rows.forEach(row -> writeLine(generator, row));
+        }
+    }
+
+    private void writeLine(JsonGenerator generator, ReservationDTO row) {
+        try {
+            rowWriter.writeValue(generator, row);
+            generator.writeRaw('\n');
+        } catch (IOException ex) {
+            // 客户端断开等：抛出去结束流，游标随 Stream 关闭
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
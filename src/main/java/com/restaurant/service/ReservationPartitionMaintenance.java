@@ -0,0 +1,88 @@
+package com.restaurant.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Keeps the monthly reservation partitions (see V8__Reservation_Monthly_Partitions.sql)
+ * rolling: creates the partitions for the coming months ahead of time and detaches the
+ * ones past the retention window into the reservation_archive schema. Archiving removes
+ * reservations from every listing, so it bumps the reservation version stamps (after commit)
+ * like any other write.
+ *
+ * Runs at startup and then daily. Both steps are idempotent, and a transaction-scoped
+ * advisory lock makes sure only one instance does the work when several are running.
+ * PostgreSQL only, so it is switched off by property (tests run on H2).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "reservation.partitions.enabled", havingValue = "true")
+public class ReservationPartitionMaintenance {
+
+    /** Arbitrary key for pg_try_advisory_xact_lock, shared by all instances. */
+    private static final long LOCK_KEY = 0x5245_5356_5041_5254L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final VersionStamps versionStamps;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public ReservationPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                           VersionStamps versionStamps,
+                                           @Value("${reservation.partitions.months-ahead:12}") int monthsAhead,
+                                           @Value("${reservation.partitions.retention-months:24}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.versionStamps = versionStamps;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${reservation.partitions.cron:0 30 3 * * *}")
+    @Transactional
+    public void maintain() {
+        Boolean locked = jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+        if (!Boolean.TRUE.equals(locked)) {
+            log.debug("Reservation partition maintenance already running on another instance");
+            return;
+        }
+
+        YearMonth current = YearMonth.now();
+        createPartitions(current);
+        archivePartitions(current.minusMonths(retentionMonths).atDay(1));
+    }
+
+    /* -------------------- STEPS -------------------- */
+
+    private void createPartitions(YearMonth current) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            LocalDate month = current.plusMonths(i).atDay(1);
+            String created = jdbcTemplate.queryForObject(
+                    "SELECT create_reservation_partition(?)", String.class, month);
+            if (created != null) {
+                log.info("Created reservation partition {}", created);
+            }
+        }
+    }
+
+    private void archivePartitions(LocalDate cutoff) {
+        List<String> archived = jdbcTemplate.queryForList(
+                "SELECT archive_reservation_partitions(?)", String.class, cutoff);
+        archived.forEach(p -> log.info("Archived reservation partition {} to reservation_archive", p));
+        if (!archived.isEmpty()) {
+            versionStamps.bumpAll(VersionStamps.RESERVATIONS);
+        }
+    }
+}
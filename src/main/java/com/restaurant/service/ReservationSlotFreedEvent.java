@@ -0,0 +1,10 @@
+package com.restaurant.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by ReservationService when an active reservation stops occupying
+ * [start, end) on a table: deleted, cancelled / completed / no-show, or moved.
+ */
+public record ReservationSlotFreedEvent(Long tableId, LocalDateTime start, LocalDateTime end) {
+}
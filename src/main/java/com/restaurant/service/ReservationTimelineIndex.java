@@ -0,0 +1,291 @@
+package com.restaurant.service;
+
+import com.restaurant.entity.Reservation;
+import com.restaurant.repository.ReservationRepository;
+import com.restaurant.util.DateTimeUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory, per-table timeline of upcoming reservations used for conflict detection.
+ *
+ * Each table keeps its bookings ordered by start time, so an overlap check only looks at
+ * the bookings starting in (start - maxDuration, end): O(log n) no matter how much
+ * history the table has. A timeline is loaded lazily on first use (upcoming bookings only)
+ * and is then kept in sync by {@link ReservationService} after each create / update / delete
+ * commits, so a rolled-back write never leaves a phantom or missing booking behind.
+ *
+ * Only a miss is answered from memory. Writes made by other instances never reach this
+ * index, so a slot freed elsewhere would stay busy here; a hit is therefore confirmed with
+ * the same existence probe in the database before it turns into a 409, and a hit the
+ * database refutes drops the timeline so the next check reloads it. A booking made
+ * elsewhere that the index misses is caught by the exclusion constraint on insert.
+ *
+ * A timeline covers [now, start of the month after next): the same window the monthly
+ * reservation partitions are laid out in, so loading a table reads at most two partitions.
+ * Intervals outside the coverage (in the past, or further ahead) are not indexed and fall
+ * back to a single bounded existence probe in the database. Once the month rolls over the
+ * window is behind, and the next check reloads the timeline.
+ *
+ * Timelines are guarded by a ReentrantLock rather than synchronized: the first check on a
+ * table loads it from the database while holding the lock, and a blocking JDBC call inside
+ * a synchronized block (or a ConcurrentHashMap compute) would pin a virtual thread's carrier.
+ */
+@Component
+public class ReservationTimelineIndex {
+
+    private final ReservationRepository reservationRepository;
+
+    private final ConcurrentHashMap<Long, Timeline> timelines = new ConcurrentHashMap<>();
+
+    /** Rows read per timeline load: how much a cold table costs. */
+    private final DistributionSummary loadedRows;
+    /** Checks that fell outside the index, or confirmed a hit, in the database. */
+    private final Counter databaseProbes;
+    /** Hits the database refuted: the slot was freed by another instance. */
+    private final Counter staleHits;
+
+    public ReservationTimelineIndex(ReservationRepository reservationRepository, MeterRegistry meterRegistry) {
+        this.reservationRepository = reservationRepository;
+        this.loadedRows = DistributionSummary.builder("reservation.timeline.load.rows")
+                .description("Reservations read when loading a table's timeline")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.databaseProbes = Counter.builder("reservation.conflict.database.probes")
+                .description("Conflict checks answered by the database instead of the timeline")
+                .register(meterRegistry);
+        this.staleHits = Counter.builder("reservation.timeline.stale.hits")
+                .description("Overlaps reported by the timeline that the database refuted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns true if any reservation on the table, other than excludeReservationId,
+     * overlaps [start, end). A true answer has always been confirmed by the database.
+     */
+    public boolean hasOverlap(Long tableId,
+                              LocalDateTime start,
+                              LocalDateTime end,
+                              Long excludeReservationId) {
+
+        Timeline timeline = timelines.computeIfAbsent(tableId, id -> new Timeline());
+        LocalDateTime now = LocalDateTime.now();
+        boolean indexed;
+
+        timeline.lock.lock();
+        try {
+            if (!timeline.loaded || timeline.coverageEnd.isBefore(coverageEnd(now))) {
+                load(tableId, timeline, now);
+            }
+            indexed = timeline.covers(start, end);
+            if (indexed && !timeline.hasOverlap(start, end, excludeReservationId)) {
+                return false;
+            }
+        } finally {
+            timeline.lock.unlock();
+        }
+
+        // 不在窗口内，或内存里显示冲突：都以数据库为准 (其他实例的写入不会同步到这里)
+        if (hasOverlapInDatabase(tableId, start, end, excludeReservationId)) {
+            return true;
+        }
+        if (indexed) {
+            staleHits.increment();
+            evict(tableId);
+        }
+        return false;
+    }
+
+    /**
+     * Records a saved reservation (new or updated). Tables that are not loaded yet are
+     * skipped: their next load reads the committed row from the database. A reservation
+     * that is no longer active (cancelled, completed, no-show) frees its slot.
+     */
+    public void put(Reservation reservation) {
+        Long tableId = reservation.getRestaurantTable().getId();
+        if (reservation.getStatus() != null && !reservation.getStatus().isActive()) {
+            remove(tableId, reservation.getId());
+            return;
+        }
+
+        Timeline timeline = timelines.get(tableId);
+        if (timeline == null) {
+            return;
+        }
+        Booking booking = Booking.of(reservation);
+
+        timeline.lock.lock();
+        try {
+            if (timeline.loaded) {
+                timeline.put(booking);
+                timeline.prune(LocalDateTime.now());
+            }
+        } finally {
+            timeline.lock.unlock();
+        }
+    }
+
+    public void remove(Long tableId, Long reservationId) {
+        Timeline timeline = timelines.get(tableId);
+        if (timeline == null) {
+            return;
+        }
+
+        timeline.lock.lock();
+        try {
+            timeline.remove(reservationId);
+        } finally {
+            timeline.lock.unlock();
+        }
+    }
+
+    /**
+     * Forgets a table's timeline so the next check reloads it, e.g. after the database
+     * rejected a booking the timeline did not know about (written by another instance).
+     */
+    public void evict(Long tableId) {
+        timelines.remove(tableId);
+    }
+
+    /* -------------------- LOADING / FALLBACK -------------------- */
+
+    /** Start of the month after next: the end of the window a timeline loaded at {@code now} covers. */
+    static LocalDateTime coverageEnd(LocalDateTime now) {
+        return now.toLocalDate().withDayOfMonth(1).plusMonths(2).atStartOfDay();
+    }
+
+    /** Called with the timeline's lock held. */
+    private void load(Long tableId, Timeline timeline, LocalDateTime now) {
+        timeline.clear();
+        timeline.coverageStart = now;
+        timeline.coverageEnd = coverageEnd(now);
+
+        List<Reservation> upcoming = reservationRepository.findUpcomingByTable(
+                tableId, now.minusMinutes(DateTimeUtils.MAX_DURATION), timeline.coverageEnd);
+        upcoming.forEach(r -> timeline.put(Booking.of(r)));
+        loadedRows.record(upcoming.size());
+
+        timeline.loaded = true;
+    }
+
+    private boolean hasOverlapInDatabase(Long tableId,
+                                         LocalDateTime start,
+                                         LocalDateTime end,
+                                         Long excludeReservationId) {
+
+        databaseProbes.increment();
+        return reservationRepository.existsOverlap(tableId, start, end, excludeReservationId);
+    }
+
+    /* -------------------- TIMELINE -------------------- */
+
+    private record Booking(Long id, LocalDateTime start, LocalDateTime end) {
+
+        static final Comparator<Booking> ORDER = Comparator
+                .comparing(Booking::start)
+                .thenComparing(Booking::id);
+
+        static Booking of(Reservation r) {
+            return new Booking(
+                    r.getId(),
+                    r.getReservationTime(),
+                    r.getReservationTime().plusMinutes(r.getDurationMinutes())
+            );
+        }
+
+        static Booking probe(LocalDateTime start) {
+            return new Booking(Long.MIN_VALUE, start, start);
+        }
+    }
+
+    /**
+     * Bookings of a single table, ordered by (start, id). Not thread-safe on its own;
+     * callers hold {@link #lock}.
+     */
+    private static final class Timeline {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /** False until the upcoming bookings have been read from the database. */
+        private boolean loaded;
+
+        private final NavigableSet<Booking> byStart = new TreeSet<>(Booking.ORDER);
+        private final Map<Long, Booking> byId = new HashMap<>();
+
+        /** Longest booking seen; bounds how far back an overlapping booking can start. */
+        private long maxDurationMinutes = DateTimeUtils.MAX_DURATION;
+
+        /** Intervals within [coverageStart, coverageEnd) are fully covered by the index. */
+        private LocalDateTime coverageStart = LocalDateTime.MAX;
+        private LocalDateTime coverageEnd = LocalDateTime.MIN;
+
+        boolean covers(LocalDateTime start, LocalDateTime end) {
+            return !start.isBefore(coverageStart) && !end.isAfter(coverageEnd);
+        }
+
+        boolean hasOverlap(LocalDateTime start, LocalDateTime end, Long excludeId) {
+            Booking from = Booking.probe(start.minusMinutes(maxDurationMinutes));
+            Booking to = Booking.probe(end);
+
+            for (Booking b : byStart.subSet(from, false, to, false)) {
+                if (b.end().isAfter(start) && !b.id().equals(excludeId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void put(Booking booking) {
+            remove(booking.id());
+            if (!booking.start().isBefore(coverageEnd)) {
+                return; // beyond the loaded window, checks there go to the database
+            }
+            byStart.add(booking);
+            byId.put(booking.id(), booking);
+
+            long minutes = Duration.between(booking.start(), booking.end()).toMinutes();
+            maxDurationMinutes = Math.max(maxDurationMinutes, minutes);
+        }
+
+        void remove(Long id) {
+            Booking existing = byId.remove(id);
+            if (existing != null) {
+                byStart.remove(existing);
+            }
+        }
+
+        void clear() {
+            byStart.clear();
+            byId.clear();
+        }
+
+        /**
+         * Drops bookings that can no longer overlap anything starting from now and moves
+         * the coverage forward accordingly, keeping memory proportional to upcoming bookings.
+         */
+        void prune(LocalDateTime now) {
+            LocalDateTime cutoff = now.minusMinutes(maxDurationMinutes);
+
+            while (!byStart.isEmpty() && byStart.first().start().isBefore(cutoff)) {
+                byId.remove(byStart.pollFirst().id());
+            }
+            if (now.isAfter(coverageStart)) {
+                coverageStart = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.restaurant.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.restaurant.dto.RestaurantDTO;
+import com.restaurant.dto.RestaurantTableDTO;
+import com.restaurant.exception.ResourceNotFoundException;
+import com.restaurant.repository.RestaurantRepository;
+import com.restaurant.repository.TableRepository;
+import com.restaurant.util.TransactionUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded in-process cache of restaurant / table metadata (as DTOs), so the booking path
+ * can validate a table without a database round trip.
+ *
+ * Restaurants and tables change a few times a day: RestaurantService and
+ * RestaurantTableService write through on update and invalidate on delete, and the TTL
+ * bounds staleness for changes made by other instances. Cached DTOs are shared, callers
+ * must not modify them. Hit / miss / eviction counts are exported as cache.* metrics.
+ *
+ * For automatic table assignment each restaurant's bookable tables are also kept as a
+ * list ordered by capacity, so the tables that can seat a party are a binary search away.
+ * Any table write drops the owning restaurant's list; it is rebuilt on next use.
+ *
+ * Writes and invalidations issued inside a transaction are applied after commit (see
+ * {@link TransactionUtils#runAfterCommit}): applied earlier, a concurrent miss could reload
+ * the old row and cache it again, or a rolled-back change would be cached.
+ */
+@Component
+public class RestaurantMetadataCache {
+
+    private final TableRepository tableRepository;
+    private final RestaurantRepository restaurantRepository;
+
+    private final Cache<Long, RestaurantTableDTO> tables;
+    private final Cache<Long, RestaurantDTO> restaurants;
+    /** restaurantId -> available tables, ordered by (capacity, tableNumber, id); immutable. */
+    private final Cache<Long, List<RestaurantTableDTO>> tablesBySize;
+
+    public RestaurantMetadataCache(TableRepository tableRepository,
+                                   RestaurantRepository restaurantRepository,
+                                   @Value("${metadata-cache.maximum-size:10000}") long maximumSize,
+                                   @Value("${metadata-cache.ttl-seconds:600}") long ttlSeconds,
+                                   MeterRegistry meterRegistry) {
+        this.tableRepository = tableRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.tables = newCache(maximumSize, ttlSeconds);
+        this.restaurants = newCache(maximumSize, ttlSeconds);
+        this.tablesBySize = newCache(maximumSize, ttlSeconds);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, tables, "restaurantTables");
+        CaffeineCacheMetrics.monitor(meterRegistry, restaurants, "restaurants");
+        CaffeineCacheMetrics.monitor(meterRegistry, tablesBySize, "restaurantTablesBySize");
+    }
+
+    /* -------------------- TABLES -------------------- */
+
+    public RestaurantTableDTO getTable(Long id) {
+        RestaurantTableDTO table = tables.get(id, key -> tableRepository.findDtoById(key).orElse(null));
+        if (table == null) {
+            throw new ResourceNotFoundException("Table not found with id " + id);
+        }
+        return table;
+    }
+
+    /** All requested tables, loading the missing ones in one query; throws if any id is unknown. */
+    public Map<Long, RestaurantTableDTO> getTables(Collection<Long> ids) {
+        Map<Long, RestaurantTableDTO> found = tables.getAll(ids, missing ->
+                tableRepository.findDtoByIdIn(List.copyOf(missing)).stream()
+                        .collect(Collectors.toMap(RestaurantTableDTO::getId, Function.identity())));
+
+        ids.stream()
+                .filter(id -> !found.containsKey(id))
+                .findFirst()
+                .ifPresent(id -> {
+                    throw new ResourceNotFoundException("Table not found with id " + id);
+                });
+        return found;
+    }
+
+    public void putTable(RestaurantTableDTO table) {
+        TransactionUtils.runAfterCommit(() -> {
+            RestaurantTableDTO previous = tables.asMap().put(table.getId(), table);
+            if (previous != null) {
+                tablesBySize.invalidate(previous.getRestaurantId());
+            }
+            tablesBySize.invalidate(table.getRestaurantId());
+        });
+    }
+
+    public void evictTable(Long id) {
+        TransactionUtils.runAfterCommit(() -> {
+            RestaurantTableDTO previous = tables.asMap().remove(id);
+            if (previous != null) {
+                tablesBySize.invalidate(previous.getRestaurantId());
+            } else {
+                tablesBySize.invalidateAll(); // 不知道属于哪家餐厅
+            }
+        });
+    }
+
+    /**
+     * Available tables of the restaurant that can seat {@code guests}, smallest first.
+     * Empty if none fits (or the restaurant has no tables); callers check the restaurant exists.
+     */
+    public List<RestaurantTableDTO> getTablesFitting(Long restaurantId, int guests) {
+        List<RestaurantTableDTO> bySize = tablesBySize.get(restaurantId, id ->
+                List.copyOf(tableRepository.findAvailableDtoByRestaurantIdOrderByCapacity(id)));
+
+        // 第一张 capacity >= guests 的桌子
+        int lo = 0;
+        int hi = bySize.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (bySize.get(mid).getCapacity() < guests) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return bySize.subList(lo, bySize.size());
+    }
+
+    /** Tables were added to the restaurant: rebuild its capacity-ordered list on next use. */
+    public void evictRestaurantTables(Long restaurantId) {
+        TransactionUtils.runAfterCommit(() -> tablesBySize.invalidate(restaurantId));
+    }
+
+    /* -------------------- RESTAURANTS -------------------- */
+
+    public RestaurantDTO getRestaurant(Long id) {
+        RestaurantDTO restaurant = restaurants.get(id, key -> restaurantRepository.findDtoById(key).orElse(null));
+        if (restaurant == null) {
+            throw new ResourceNotFoundException("Restaurant not found with id " + id);
+        }
+        return restaurant;
+    }
+
+    public void putRestaurant(RestaurantDTO restaurant) {
+        TransactionUtils.runAfterCommit(() -> restaurants.put(restaurant.getId(), restaurant));
+    }
+
+    /** Deleting a restaurant cascades to its tables, which are dropped as well. */
+    public void evictRestaurant(Long id) {
+        TransactionUtils.runAfterCommit(() -> {
+            restaurants.invalidate(id);
+            tables.asMap().values().removeIf(t -> id.equals(t.getRestaurantId()));
+            tablesBySize.invalidate(id);
+        });
+    }
+
+    private static <V> Cache<Long, V> newCache(long maximumSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+}
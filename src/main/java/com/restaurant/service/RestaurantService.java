@@ -1,57 +1,82 @@
 // src/main/java/com/restaurant/service/RestaurantService.java
 package com.restaurant.service;
 
+import com.restaurant.dto.CursorPage;
 import com.restaurant.dto.RestaurantDTO;
 import com.restaurant.entity.Restaurant;
 import com.restaurant.exception.ResourceNotFoundException;
 import com.restaurant.repository.RestaurantRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "restaurant.service", histogram = true)
 public class RestaurantService {
 
     @Autowired
     private RestaurantRepository restaurantRepository;
 
-    public List<RestaurantDTO> getAllRestaurants() {
-        return restaurantRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Autowired
+    private RestaurantMetadataCache metadataCache;
+
+    @Autowired
+    private VersionStamps versionStamps;
+
+    @Transactional(readOnly = true)
+    public CursorPage<RestaurantDTO> getRestaurants(Long after, Integer limit) {
+        int pageSize = CursorPage.normalizeLimit(limit);
+        List<RestaurantDTO> rows = restaurantRepository
+                .findDtoPage(after == null ? 0L : after, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, RestaurantDTO::getId);
     }
 
+    // 走元数据缓存：没有事务，也不占连接；缓存未命中时只有加载那一条查询用连接
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public RestaurantDTO getRestaurantById(Long id) {
-        Restaurant restaurant = restaurantRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id " + id));
-        return convertToDTO(restaurant);
+        return metadataCache.getRestaurant(id);
     }
 
+    @Transactional
     public RestaurantDTO createRestaurant(RestaurantDTO restaurantDTO) {
         Restaurant restaurant = convertToEntity(restaurantDTO);
-        return convertToDTO(restaurantRepository.save(restaurant));
+        RestaurantDTO created = convertToDTO(restaurantRepository.save(restaurant));
+        versionStamps.bump(VersionStamps.RESTAURANTS, created.getId());
+        return created;
     }
 
+    @Transactional
     public RestaurantDTO updateRestaurant(Long id, RestaurantDTO restaurantDTO) {
         Restaurant restaurant = restaurantRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Restaurant not found with id " + id));
         restaurant.setName(restaurantDTO.getName());
         restaurant.setAddress(restaurantDTO.getAddress());
         restaurant.setPhone(restaurantDTO.getPhone());
-        return convertToDTO(restaurantRepository.save(restaurant));
+
+        RestaurantDTO updated = convertToDTO(restaurantRepository.save(restaurant));
+        metadataCache.putRestaurant(updated);
+        versionStamps.bump(VersionStamps.RESTAURANTS, id);
+        return updated;
     }
 
+    @Transactional
     public void deleteRestaurant(Long id) {
         boolean exists = restaurantRepository.existsById(id);
         if (!exists) {
             throw new ResourceNotFoundException("Restaurant not found with id " + id);
         }
         restaurantRepository.deleteById(id);
+        metadataCache.evictRestaurant(id);
+        versionStamps.bump(VersionStamps.RESTAURANTS, id);
+        versionStamps.bumpAll(VersionStamps.TABLES); // 级联删除了餐桌
     }
 
-    private RestaurantDTO convertToDTO(Restaurant restaurant) {
+    RestaurantDTO convertToDTO(Restaurant restaurant) {
         RestaurantDTO dto = new RestaurantDTO();
         dto.setId(restaurant.getId());
         dto.setName(restaurant.getName());
@@ -1,6 +1,7 @@
 // src/main/java/com/restaurant/service/TableService.java
 package com.restaurant.service;
 
+import com.restaurant.dto.CursorPage;
 import com.restaurant.dto.RestaurantTableDTO;
 import com.restaurant.entity.Restaurant;
 import com.restaurant.entity.RestaurantTable;
@@ -8,35 +9,52 @@ import com.restaurant.exception.BadRequestException;
 import com.restaurant.exception.ResourceNotFoundException;
 import com.restaurant.repository.RestaurantRepository;
 import com.restaurant.repository.TableRepository;
+import io.micrometer.core.annotation.Timed;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "restaurant.service", histogram = true)
 public class RestaurantTableService {
 
+    private static final int MAX_BATCH_SIZE = 500;
+
     @Autowired
     private TableRepository tableRepository;
 
     @Autowired
     private RestaurantRepository restaurantRepository;
 
+    @Autowired
+    private RestaurantMetadataCache metadataCache;
+
+    @Autowired
+    private VersionStamps versionStamps;
+
     /*---------------------- Public Methods ----------------------*/
 
-    public List<RestaurantTableDTO> getAllTables() {
-        return tableRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<RestaurantTableDTO> getTables(Long restaurantId, Long after, Integer limit) {
+        int pageSize = CursorPage.normalizeLimit(limit);
+        List<RestaurantTableDTO> rows = tableRepository
+                .findDtoPage(after == null ? 0L : after, restaurantId, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, RestaurantTableDTO::getId);
     }
 
+    // 走元数据缓存：没有事务，也不占连接；缓存未命中时只有加载那一条查询用连接
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public RestaurantTableDTO getTableById(Long id) {
-        RestaurantTable table = getTableOrThrow(id);
-        return convertToDTO(table);
+        return metadataCache.getTable(id);
     }
 
+    @Transactional
     public RestaurantTableDTO createTable(RestaurantTableDTO tableDTO) {
         validateCreateInput(tableDTO);
 
@@ -46,15 +64,54 @@ public class RestaurantTableService {
         RestaurantTable table = convertToEntity(tableDTO);
         table.setRestaurant(restaurant);
 
-        return convertToDTO(tableRepository.save(table));
+        RestaurantTableDTO created = convertToDTO(tableRepository.save(table));
+        metadataCache.evictRestaurantTables(created.getRestaurantId());
+        versionStamps.bump(VersionStamps.TABLES, created.getId());
+        return created;
+    }
+
+    // 一个事务内 saveAll，序列池化主键 + hibernate.jdbc.batch_size 让插入按批发送
+    @Transactional
+    public List<RestaurantTableDTO> createTables(List<RestaurantTableDTO> tableDTOs) {
+        if (tableDTOs == null || tableDTOs.isEmpty()) {
+            throw new BadRequestException("Batch must contain at least one item.");
+        }
+        if (tableDTOs.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Batch must not contain more than " + MAX_BATCH_SIZE + " items.");
+        }
+        tableDTOs.forEach(RestaurantTableService::validateCreateInput);
+
+        List<RestaurantTable> tables = tableDTOs.stream()
+                .map(dto -> {
+                    RestaurantTable table = convertToEntity(dto);
+                    table.setRestaurant(getRestaurantOrThrow(dto.getRestaurantId()));
+                    return table;
+                })
+                .collect(Collectors.toList());
+
+        List<RestaurantTableDTO> created = tableRepository.saveAll(tables).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        created.stream()
+                .map(RestaurantTableDTO::getRestaurantId)
+                .distinct()
+                .forEach(metadataCache::evictRestaurantTables);
+        created.forEach(t -> versionStamps.bump(VersionStamps.TABLES, t.getId()));
+        return created;
     }
 
+    @Transactional
     public RestaurantTableDTO updateTable(Long id, RestaurantTableDTO tableDTO) {
         RestaurantTable table = getTableOrThrow(id);
         updateTableFields(table, tableDTO);
-        return convertToDTO(tableRepository.save(table));
+
+        RestaurantTableDTO updated = convertToDTO(tableRepository.save(table));
+        metadataCache.putTable(updated);
+        versionStamps.bump(VersionStamps.TABLES, id);
+        return updated;
     }
 
+    @Transactional
     public void deleteTable(Long id) {
         if (!tableRepository.existsById(id)) {
             throw new ResourceNotFoundException(
@@ -62,6 +119,8 @@ public class RestaurantTableService {
             );
         }
         tableRepository.deleteById(id);
+        metadataCache.evictTable(id);
+        versionStamps.bump(VersionStamps.TABLES, id);
     }
 
     /*---------------------- Private Helpers ----------------------*/
@@ -74,15 +133,13 @@ public class RestaurantTableService {
                         ));
     }
 
+    // 存在性走缓存；关联只需要带 id 的代理，不查库
     private Restaurant getRestaurantOrThrow(Long id) {
-        return restaurantRepository.findById(id)
-                .orElseThrow(() ->
-                        new ResourceNotFoundException(
-                                "Restaurant not found with id " + id
-                        ));
+        metadataCache.getRestaurant(id);
+        return restaurantRepository.getReferenceById(id);
     }
 
-    private void validateCreateInput(RestaurantTableDTO dto) {
+    static void validateCreateInput(RestaurantTableDTO dto) {
         if (dto.getRestaurantId() == null) {
             throw new BadRequestException("restaurantId is required");
         }
@@ -99,7 +156,7 @@ public class RestaurantTableService {
         table.setAvailable(dto.isAvailable());
     }
 
-    private RestaurantTableDTO convertToDTO(RestaurantTable table) {
+    RestaurantTableDTO convertToDTO(RestaurantTable table) {
         RestaurantTableDTO dto = new RestaurantTableDTO();
         dto.setId(table.getId());
         dto.setRestaurantId(table.getRestaurant().getId());
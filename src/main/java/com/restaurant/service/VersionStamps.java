@@ -0,0 +1,120 @@
+package com.restaurant.service;
+
+import com.restaurant.util.TransactionUtils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version stamps for conditional GETs: one per collection and one per entity, bumped by
+ * the services on every write. Controllers derive strong ETags from them, so an
+ * If-None-Match hit is answered with 304 before any query or serialization happens.
+ *
+ * Stamps come from a single counter and the ETag includes a per-process epoch, so tags
+ * never repeat across restarts. Per-entity stamps are kept for the most recently written
+ * entities only; an entity that was never written (or aged out) uses the collection's
+ * floor, the highest stamp dropped so far, which can only cause an extra 200, never a
+ * stale 304.
+ *
+ * Stamps live in this process, so writes made by other instances are not seen and an
+ * instance could keep answering 304 for data another one changed. Conditional GETs are
+ * therefore a single-instance feature: deployments running more than one instance set
+ * {@code http.etag.enabled=false}, which turns the ETags off (every GET is served with a
+ * body) while the rest of the application keeps working unchanged.
+ */
+@Component
+public class VersionStamps {
+
+    public static final String RESTAURANTS = "restaurants";
+    public static final String TABLES = "tables";
+    public static final String RESERVATIONS = "reservations";
+
+    private static final int MAX_TRACKED_ENTITIES = 100_000;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Stamps> collections = new ConcurrentHashMap<>();
+    private final boolean enabled;
+
+    public VersionStamps(@Value("${http.etag.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /** Strong ETag for any listing of the collection, or null when ETags are off. */
+    public String collectionETag(String collection) {
+        if (!enabled) {
+            return null;
+        }
+        return "\"" + collection + "-" + epoch + "." + stamps(collection).collection + "\"";
+    }
+
+    /** Strong ETag for a single entity, or null when ETags are off. */
+    public String entityETag(String collection, Long id) {
+        if (!enabled) {
+            return null;
+        }
+        return "\"" + collection + "-" + id + "-" + epoch + "." + stamps(collection).entity(id) + "\"";
+    }
+
+    /**
+     * Marks the entity (and its collection) as changed. Inside a transaction the bump is
+     * deferred until after commit ({@link TransactionUtils#runAfterCommit}), otherwise a
+     * reader could tag pre-commit data with the new stamp and keep serving it as 304.
+     */
+    public void bump(String collection, Long id) {
+        TransactionUtils.runAfterCommit(() -> stamps(collection).bump(id, sequence.incrementAndGet()));
+    }
+
+    /**
+     * Marks every entity of the collection as changed, e.g. after a cascading delete or
+     * archiving partitions. Deferred like {@link #bump}.
+     */
+    public void bumpAll(String collection) {
+        TransactionUtils.runAfterCommit(() -> stamps(collection).bumpAll(sequence.incrementAndGet()));
+    }
+
+    private Stamps stamps(String collection) {
+        return collections.computeIfAbsent(collection, c -> new Stamps());
+    }
+
+    /* -------------------- PER-COLLECTION STATE -------------------- */
+
+    private static final class Stamps {
+
+        private volatile long collection;
+        private long floor;
+
+        private final LinkedHashMap<Long, Long> entities = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                if (size() > MAX_TRACKED_ENTITIES) {
+                    floor = Math.max(floor, eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        synchronized long entity(Long id) {
+            return entities.getOrDefault(id, floor);
+        }
+
+        synchronized void bump(Long id, long stamp) {
+            if (id != null) {
+                entities.put(id, stamp);
+            }
+            collection = stamp;
+        }
+
+        synchronized void bumpAll(long stamp) {
+            entities.clear();
+            floor = stamp;
+            collection = stamp;
+        }
+    }
+}
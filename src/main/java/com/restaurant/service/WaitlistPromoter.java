@@ -0,0 +1,180 @@
+package com.restaurant.service;
+
+import com.restaurant.dto.ReservationDTO;
+import com.restaurant.dto.RestaurantTableDTO;
+import com.restaurant.dto.WaitlistEntryDTO;
+import com.restaurant.exception.BadRequestException;
+import com.restaurant.exception.ConflictException;
+import com.restaurant.exception.ResourceNotFoundException;
+import com.restaurant.repository.WaitlistRepository;
+import com.restaurant.util.DateTimeUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Turns a freed slot into a booking for the best-matching waitlisted party.
+ *
+ * Runs on Spring's task executor after the freeing change has committed (or right away when
+ * it ran outside a transaction), so deleting or cancelling a reservation does not wait for it.
+ * Candidates are tried in order (largest party that fits the table, then first come): an entry
+ * is claimed with a compare-and-set on its status before booking, so concurrent promotions
+ * never book the same party twice, and released again if the booking fails for any reason.
+ *
+ * The reservation id is recorded on the entry in the transaction that inserts the booking,
+ * so a claimed entry either has its reservation or no booking was made for it. A claim left
+ * behind by a process that died before booking is swept periodically: once older than the
+ * claim timeout it is put back on the list. If the booking was still running, linking the
+ * entry then fails and rolls the booking back, so the party is never booked twice.
+ */
+@Slf4j
+@Component
+public class WaitlistPromoter {
+
+    /** Candidates tried per freed slot before giving up. */
+    static final int MAX_CANDIDATES = 20;
+
+    /** Unfinished claims handled per sweep. */
+    static final int SWEEP_BATCH = 100;
+
+    private final WaitlistRepository waitlistRepository;
+    private final ReservationService reservationService;
+    private final RestaurantMetadataCache metadataCache;
+    private final Duration claimTimeout;
+
+    private final Counter promotions;
+    private final Counter releasedClaims;
+
+    public WaitlistPromoter(WaitlistRepository waitlistRepository,
+                            ReservationService reservationService,
+                            RestaurantMetadataCache metadataCache,
+                            @Value("${waitlist.claim-timeout-minutes:10}") long claimTimeoutMinutes,
+                            MeterRegistry meterRegistry) {
+        this.waitlistRepository = waitlistRepository;
+        this.reservationService = reservationService;
+        this.metadataCache = metadataCache;
+        this.claimTimeout = Duration.ofMinutes(claimTimeoutMinutes);
+        this.promotions = Counter.builder("waitlist.promotions")
+                .description("Waitlisted parties booked into a freed slot")
+                .register(meterRegistry);
+        this.releasedClaims = Counter.builder("waitlist.claims.released")
+                .description("Promotion claims put back on the waitlist by the sweeper")
+                .register(meterRegistry);
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotFreed(ReservationSlotFreedEvent event) {
+        RestaurantTableDTO table;
+        try {
+            table = metadataCache.getTable(event.tableId());
+        } catch (ResourceNotFoundException ex) {
+            return; // 桌子已经被删除
+        }
+        if (!table.isAvailable()) {
+            return;
+        }
+
+        LocalDateTime from = later(event.start(), nextSlot(LocalDateTime.now()));
+        if (!from.isBefore(event.end())) {
+            return; // 腾出的时段已经过去
+        }
+
+        List<WaitlistEntryDTO> candidates = waitlistRepository.findCandidates(
+                table.getRestaurantId(), table.getCapacity(), from, event.end(), Limit.of(MAX_CANDIDATES));
+
+        for (WaitlistEntryDTO candidate : candidates) {
+            if (promote(candidate, table, later(candidate.getEarliestStart(), from))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Puts back claims whose promotion died before booking. A claim without a reservation id
+     * never got a committed booking (the id is written with it), so there is nothing to link.
+     * Every change is a compare-and-set, so it is safe to run on all instances at once.
+     */
+    @Scheduled(fixedDelayString = "${waitlist.claim-sweep.interval-ms:60000}")
+    public void sweepUnfinishedClaims() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(claimTimeout);
+
+        for (WaitlistEntryDTO entry : waitlistRepository.findUnfinishedClaims(cutoff, Limit.of(SWEEP_BATCH))) {
+            if (waitlistRepository.releaseUnfinishedClaim(entry.getId(), cutoff) == 1) {
+                releasedClaims.increment();
+                log.warn("Waitlist entry {} was claimed but never booked; put back on the waitlist", entry.getId());
+            }
+        }
+    }
+
+    /* -------------------- HELPERS -------------------- */
+
+    private boolean promote(WaitlistEntryDTO candidate, RestaurantTableDTO table, LocalDateTime start) {
+        // 认领时间同时是这次认领的标识 (截到毫秒，和库里存的一致)
+        LocalDateTime claimedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        if (waitlistRepository.claim(candidate.getId(), claimedAt) == 0) {
+            return false; // 已被其他晋升或取消
+        }
+
+        ReservationDTO request = new ReservationDTO();
+        request.setCustomerId(candidate.getCustomerId());
+        request.setTableId(table.getId());
+        request.setReservationTime(start);
+        request.setDurationMinutes(candidate.getDurationMinutes());
+        request.setNumGuests(candidate.getNumGuests());
+
+        ReservationDTO booked;
+        try {
+            // reservation_id 和预订在同一个事务里写入：要么一起提交，要么一起回滚
+            booked = reservationService.createReservation(request, reservationId -> {
+                if (waitlistRepository.linkReservation(candidate.getId(), claimedAt, reservationId) == 0) {
+                    // 认领已被清扫放回候补 (可能已由别处晋升)：放弃这次预订
+                    throw new IllegalStateException("Claim on waitlist entry " + candidate.getId() + " was released");
+                }
+            });
+        } catch (ConflictException | BadRequestException | ResourceNotFoundException ex) {
+            // 时长放不下 / 又被别人订走 / 客户已删除：放回候补，试下一位
+            release(candidate, claimedAt);
+            return false;
+        } catch (RuntimeException ex) {
+            // 其他任何失败也没有订上，同样放回候补
+            log.warn("Promoting waitlist entry {} failed, released it: {}", candidate.getId(), ex.getMessage());
+            release(candidate, claimedAt);
+            return false;
+        }
+
+        promotions.increment();
+        log.info("Waitlist entry {} promoted to reservation {}", candidate.getId(), booked.getId());
+        return true;
+    }
+
+    private void release(WaitlistEntryDTO candidate, LocalDateTime claimedAt) {
+        waitlistRepository.releaseClaim(candidate.getId(), claimedAt);
+    }
+
+    /** Start of the next booking slot at or after {@code now}. */
+    static LocalDateTime nextSlot(LocalDateTime now) {
+        LocalDateTime minute = now.truncatedTo(ChronoUnit.MINUTES);
+        if (minute.isBefore(now)) {
+            minute = minute.plusMinutes(1);
+        }
+        int remainder = minute.getMinute() % DateTimeUtils.SLOT_MINUTES;
+        return remainder == 0 ? minute : minute.plusMinutes(DateTimeUtils.SLOT_MINUTES - remainder);
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
@@ -0,0 +1,128 @@
+package com.restaurant.service;
+
+import com.restaurant.dto.CursorPage;
+import com.restaurant.dto.WaitlistEntryDTO;
+import com.restaurant.entity.WaitlistEntry;
+import com.restaurant.entity.WaitlistStatus;
+import com.restaurant.exception.BadRequestException;
+import com.restaurant.exception.ConflictException;
+import com.restaurant.exception.ResourceNotFoundException;
+import com.restaurant.repository.CustomerRepository;
+import com.restaurant.repository.RestaurantRepository;
+import com.restaurant.repository.WaitlistRepository;
+import io.micrometer.core.annotation.Timed;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@Timed(value = "restaurant.service", histogram = true)
+public class WaitlistService {
+
+    private final WaitlistRepository waitlistRepository;
+    private final CustomerRepository customerRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final RestaurantMetadataCache metadataCache;
+
+    public WaitlistService(WaitlistRepository waitlistRepository,
+                           CustomerRepository customerRepository,
+                           RestaurantRepository restaurantRepository,
+                           RestaurantMetadataCache metadataCache) {
+        this.waitlistRepository = waitlistRepository;
+        this.customerRepository = customerRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.metadataCache = metadataCache;
+    }
+
+    /* -------------------- PUBLIC API -------------------- */
+
+    @Transactional(readOnly = true)
+    public CursorPage<WaitlistEntryDTO> getEntries(Long restaurantId, WaitlistStatus status, Long after, Integer limit) {
+        int pageSize = CursorPage.normalizeLimit(limit);
+        List<WaitlistEntryDTO> rows = waitlistRepository
+                .findDtoPage(after == null ? 0L : after, restaurantId, status, Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, WaitlistEntryDTO::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public WaitlistEntryDTO getEntryById(Long id) {
+        return waitlistRepository.findDtoById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found with id " + id));
+    }
+
+    @Transactional
+    public WaitlistEntryDTO addEntry(WaitlistEntryDTO dto) {
+        validateCreateFields(dto);
+
+        metadataCache.getRestaurant(dto.getRestaurantId());
+        if (!customerRepository.existsById(dto.getCustomerId())) {
+            throw new ResourceNotFoundException("Customer not found with id " + dto.getCustomerId());
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setCustomer(customerRepository.getReferenceById(dto.getCustomerId()));
+        entry.setRestaurant(restaurantRepository.getReferenceById(dto.getRestaurantId()));
+        entry.setNumGuests(dto.getNumGuests());
+        entry.setDurationMinutes(dto.getDurationMinutes());
+        entry.setEarliestStart(dto.getEarliestStart());
+        entry.setLatestStart(dto.getLatestStart());
+        entry.setStatus(WaitlistStatus.WAITING);
+        entry.setCreatedAt(LocalDateTime.now());
+
+        return convertToDTO(waitlistRepository.save(entry));
+    }
+
+    /** Leaves the waitlist; only a waiting entry can be cancelled. */
+    @Transactional
+    public void cancelEntry(Long id) {
+        if (!waitlistRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Waitlist entry not found with id " + id);
+        }
+        if (waitlistRepository.transition(id, WaitlistStatus.WAITING, WaitlistStatus.CANCELLED) == 0) {
+            throw new ConflictException("Only a waiting entry can be cancelled.");
+        }
+    }
+
+    /* -------------------- VALIDATION HELPERS -------------------- */
+
+    private void validateCreateFields(WaitlistEntryDTO dto) {
+        if (dto.getCustomerId() == null ||
+            dto.getRestaurantId() == null ||
+            dto.getEarliestStart() == null ||
+            dto.getLatestStart() == null) {
+            throw new BadRequestException(
+                    "customerId, restaurantId, earliestStart and latestStart are required."
+            );
+        }
+        if (dto.getNumGuests() <= 0) {
+            throw new BadRequestException("numGuests must be greater than 0.");
+        }
+        if (dto.getLatestStart().isBefore(dto.getEarliestStart())) {
+            throw new BadRequestException("latestStart must not be before earliestStart.");
+        }
+        // 窗口两端都必须是合法的预订时段
+        ReservationService.validateTimeSlot(dto.getEarliestStart(), dto.getDurationMinutes());
+        ReservationService.validateTimeSlot(dto.getLatestStart(), dto.getDurationMinutes());
+    }
+
+    /* -------------------- DTO CONVERTER -------------------- */
+
+    private WaitlistEntryDTO convertToDTO(WaitlistEntry entry) {
+        return new WaitlistEntryDTO(
+                entry.getId(),
+                entry.getCustomer().getId(),
+                entry.getRestaurant().getId(),
+                entry.getNumGuests(),
+                entry.getDurationMinutes(),
+                entry.getEarliestStart(),
+                entry.getLatestStart(),
+                entry.getStatus(),
+                entry.getReservationId(),
+                entry.getCreatedAt()
+        );
+    }
+}
@@ -1,6 +1,7 @@
 // src/main/java/com/restaurant/util/DateTimeUtils.java
 package com.restaurant.util;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 
@@ -8,8 +9,13 @@ public class DateTimeUtils {
 
     private static final LocalTime OPEN_TIME = LocalTime.of(9, 0);
     private static final LocalTime CLOSE_TIME = LocalTime.of(22, 0);
-    private static final int MIN_DURATION = 30;
-    private static final int MAX_DURATION = 120;
+    public static final int MIN_DURATION = 30;
+    public static final int MAX_DURATION = 120;
+
+    /** Granularity of availability slots; 09:00-22:00 gives 52 slots, which fit in one long. */
+    public static final int SLOT_MINUTES = 15;
+    public static final int SLOTS_PER_DAY =
+            (int) (Duration.between(OPEN_TIME, CLOSE_TIME).toMinutes() / SLOT_MINUTES);
 
     public static boolean isValidTimeSlot(LocalDateTime startTime, int durationMinutes) {
         LocalDateTime now = LocalDateTime.now();
@@ -29,4 +35,17 @@ public class DateTimeUtils {
         // Additional checks, e.g., round to nearest 15 min, etc.
         return true;
     }
-}
\ No newline at end of file
+
+    public static LocalTime openTime() {
+        return OPEN_TIME;
+    }
+
+    public static LocalTime closeTime() {
+        return CLOSE_TIME;
+    }
+
+    /** Start time of the given slot index (0 = opening time). */
+    public static LocalTime slotStart(int slot) {
+        return OPEN_TIME.plusMinutes((long) slot * SLOT_MINUTES);
+    }
+}
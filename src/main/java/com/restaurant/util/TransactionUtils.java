@@ -0,0 +1,34 @@
+package com.restaurant.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public final class TransactionUtils {
+
+    private TransactionUtils() {
+    }
+
+    /**
+     * Runs an in-memory change (cache, index, version stamp) once the surrounding database
+     * transaction commits, and drops it if that transaction rolls back.
+     *
+     * Only a real transaction defers the change. Outside one it runs right away, and so it
+     * does inside a scope that merely has synchronization on, such as a NOT_SUPPORTED or
+     * SUPPORTS method: such a scope commits nothing, so whatever the change reflects has
+     * already been committed by an inner transaction and must be visible now, not when
+     * (or if) the empty scope completes.
+     */
+    public static void runAfterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+}
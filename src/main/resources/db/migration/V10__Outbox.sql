@@ -0,0 +1,25 @@
+-- =========================================
+-- 事务性发件箱 (Transactional outbox)
+-- 预订的增删改和这里的一行在同一个事务里写入；OutboxDispatcher 在后台按批投递给下游
+-- =========================================
+-- id 用 BIGSERIAL (插入时才取号，不做池化)：同一预订的后一次修改要等前一个事务提交后才能
+-- 拿到行锁，所以它的 id 一定更大，按 id 投递就保证了同一预订的事件顺序
+CREATE TABLE outbox_event (
+    id             BIGSERIAL   PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id   BIGINT      NOT NULL,
+    event_type     VARCHAR(50) NOT NULL,
+    payload        TEXT        NOT NULL,
+    created_at     TIMESTAMP   NOT NULL DEFAULT now(),
+    published_at   TIMESTAMP
+);
+
+-- 待投递队列：只索引还没投递的行，投递后自动移出索引
+CREATE INDEX idx_outbox_pending
+    ON outbox_event (id)
+    WHERE published_at IS NULL;
+
+-- 清理已投递的旧事件
+CREATE INDEX idx_outbox_published
+    ON outbox_event (published_at)
+    WHERE published_at IS NOT NULL;
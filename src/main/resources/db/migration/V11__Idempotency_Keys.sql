@@ -0,0 +1,15 @@
+-- =========================================
+-- Idempotency-Key: 客户端超时重试时直接返回第一次的响应
+-- scope = 用户 + 接口 + key；response_status 为空表示第一次请求还在处理中
+-- =========================================
+CREATE TABLE idempotency_key (
+    scope           VARCHAR(400) PRIMARY KEY,
+    request_hash    VARCHAR(64)  NOT NULL,
+    response_status INT,
+    response_body   TEXT,
+    created_at      TIMESTAMP    NOT NULL DEFAULT now(),
+    expires_at      TIMESTAMP    NOT NULL
+);
+
+-- 定时清理过期记录
+CREATE INDEX idx_idempotency_key_expires ON idempotency_key (expires_at);
@@ -0,0 +1,10 @@
+-- =========================================
+-- 候补晋升的认领时间
+-- 认领 (WAITING -> PROMOTED) 和写入 reservation_id 之间如果进程崩溃，条目会一直停在 PROMOTED；
+-- WaitlistPromoter 定时把认领超时、还没有 reservation_id 的条目放回候补
+-- =========================================
+ALTER TABLE waitlist_entry ADD COLUMN promoted_at TIMESTAMP;
+
+CREATE INDEX idx_waitlist_unfinished_claim
+    ON waitlist_entry (promoted_at)
+    WHERE status = 'PROMOTED' AND reservation_id IS NULL;
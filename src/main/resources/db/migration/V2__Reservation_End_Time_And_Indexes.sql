@@ -0,0 +1,20 @@
+-- =========================================
+-- 1. 预订结束时间 (Reservation end_time)
+--    持久化 reservation_time + duration_minutes，让重叠查询两端都能走索引
+-- =========================================
+ALTER TABLE reservation ADD COLUMN IF NOT EXISTS end_time TIMESTAMP;
+
+UPDATE reservation
+SET end_time = reservation_time + make_interval(mins => COALESCE(duration_minutes, 60))
+WHERE end_time IS NULL;
+
+-- =========================================
+-- 2. 索引 (Indexes)
+--    冲突检测: table_id = ? AND reservation_time < ? AND end_time > ?
+--    INCLUDE (id) 让排除自身的探测也可以 index-only scan
+-- =========================================
+CREATE INDEX IF NOT EXISTS idx_reservation_table_time
+    ON reservation (table_id, reservation_time, end_time) INCLUDE (id);
+
+CREATE INDEX IF NOT EXISTS idx_reservation_customer
+    ON reservation (customer_id);
@@ -0,0 +1,92 @@
+-- =========================================
+-- 同一餐桌的预订时间段不能重叠 (由数据库保证，防止并发双重预订)
+-- 只约束占用时段的预订：已取消 / 已完成 / 未到店的不占用
+-- =========================================
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- 这时 status 还没有规范化 (V7 才做)：大小写、空格、CANCELED 写法都可能出现。
+-- “占用时段” = V7 规范化后会变成 PENDING / CONFIRMED 的那些值 (包括 NULL 和未知值)，
+-- 所以 V7 重建的排他约束在这里清理过的数据上一定成立
+CREATE FUNCTION pg_temp.occupies_slot(status TEXT) RETURNS BOOLEAN
+LANGUAGE sql IMMUTABLE AS $$
+    SELECT COALESCE(UPPER(TRIM(status)), '') NOT IN ('CANCELLED', 'CANCELED', 'COMPLETED', 'NO_SHOW')
+$$;
+
+-- -----------------------------------------
+-- 1. 先处理已有的重叠预订，否则下面 ADD CONSTRAINT 直接失败
+--    (排他约束不支持 NOT VALID，只能先把数据整理干净)
+--    规则：同一餐桌上互相重叠、都占用时段的预订，按 id 从小到大保留 (先下单的先得)，
+--    与已保留预订重叠的改为 CANCELLED。改之前整行连同原状态写进 reservation_overlap_audit，
+--    谁被取消、原来是什么状态、让位给了哪条预订都查得到，需要时可以人工恢复或通知客户。
+--    在已经满足约束的库上这一步什么都不改，审计表为空。
+-- -----------------------------------------
+CREATE TABLE reservation_overlap_audit (
+    reservation_id       BIGINT      NOT NULL,
+    table_id             BIGINT,
+    customer_id          BIGINT,
+    reservation_time     TIMESTAMP,
+    end_time             TIMESTAMP,
+    original_status      VARCHAR(50),
+    kept_reservation_id  BIGINT      NOT NULL,
+    cancelled_at         TIMESTAMP   NOT NULL DEFAULT now()
+);
+
+-- 每轮：没有更小 id 与之重叠的占用预订一定保留，取消与它们重叠的那些；直到没有重叠为止。
+-- 结果等同于按 id 顺序贪心保留，链式重叠 (1 压 2，2 压 3，1 不压 3) 时 3 会被保留
+DO $$
+DECLARE
+    cancelled INT;
+BEGIN
+    LOOP
+        WITH conflicts AS (
+            SELECT later.id, MIN(kept.id) AS kept_id
+            FROM reservation kept
+            JOIN reservation later
+              ON later.table_id = kept.table_id
+             AND later.id > kept.id
+             AND tsrange(later.reservation_time, later.end_time)
+                 && tsrange(kept.reservation_time, kept.end_time)
+            WHERE kept.reservation_time IS NOT NULL
+              AND pg_temp.occupies_slot(kept.status)
+              AND later.reservation_time IS NOT NULL
+              AND pg_temp.occupies_slot(later.status)
+              AND NOT EXISTS (
+                  SELECT 1
+                  FROM reservation earlier
+                  WHERE earlier.table_id = kept.table_id
+                    AND earlier.id < kept.id
+                    AND earlier.reservation_time IS NOT NULL
+                    AND pg_temp.occupies_slot(earlier.status)
+                    AND tsrange(earlier.reservation_time, earlier.end_time)
+                        && tsrange(kept.reservation_time, kept.end_time)
+              )
+            GROUP BY later.id
+        ), audited AS (
+            INSERT INTO reservation_overlap_audit
+                (reservation_id, table_id, customer_id, reservation_time, end_time, original_status, kept_reservation_id)
+            SELECT r.id, r.table_id, r.customer_id, r.reservation_time, r.end_time, r.status, c.kept_id
+            FROM reservation r
+            JOIN conflicts c ON c.id = r.id
+            RETURNING reservation_id
+        )
+        UPDATE reservation
+        SET status = 'CANCELLED'
+        WHERE id IN (SELECT reservation_id FROM audited);
+
+        GET DIAGNOSTICS cancelled = ROW_COUNT;
+        EXIT WHEN cancelled = 0;
+        RAISE WARNING 'V3: cancelled % overlapping reservation(s), see reservation_overlap_audit', cancelled;
+    END LOOP;
+END $$;
+
+-- -----------------------------------------
+-- 2. 排他约束 (谓词与上面的 occupies_slot 相同，内联写出：约束不能依赖临时函数)
+-- -----------------------------------------
+ALTER TABLE reservation
+    ADD CONSTRAINT ex_reservation_table_overlap
+    EXCLUDE USING gist (
+        table_id WITH =,
+        tsrange(reservation_time, end_time) WITH &&
+    )
+    WHERE (reservation_time IS NOT NULL
+           AND COALESCE(UPPER(TRIM(status)), '') NOT IN ('CANCELLED', 'CANCELED', 'COMPLETED', 'NO_SHOW'));
@@ -0,0 +1,9 @@
+-- =========================================
+-- 客户 / 预订改用序列池化主键 (allocationSize = 50)
+-- IDENTITY 会让 Hibernate 关闭批量插入；序列可以一次取 50 个 id
+-- =========================================
+CREATE SEQUENCE IF NOT EXISTS customer_seq INCREMENT BY 50;
+SELECT setval('customer_seq', (SELECT COALESCE(MAX(id), 0) FROM customer) + 50);
+
+CREATE SEQUENCE IF NOT EXISTS reservation_seq INCREMENT BY 50;
+SELECT setval('reservation_seq', (SELECT COALESCE(MAX(id), 0) FROM reservation) + 50);
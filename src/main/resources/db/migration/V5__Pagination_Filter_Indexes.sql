@@ -0,0 +1,5 @@
+-- =========================================
+-- 列表分页过滤用的索引 (keyset 分页按 id 排序)
+-- =========================================
+CREATE INDEX IF NOT EXISTS idx_restaurant_table_restaurant
+    ON restaurant_table (restaurant_id, id);
@@ -0,0 +1,5 @@
+-- =========================================
+-- 餐桌改用序列池化主键 (allocationSize = 50)，批量导入时插入可以按批发送
+-- =========================================
+CREATE SEQUENCE IF NOT EXISTS restaurant_table_seq INCREMENT BY 50;
+SELECT setval('restaurant_table_seq', (SELECT COALESCE(MAX(id), 0) FROM restaurant_table) + 50);
@@ -0,0 +1,31 @@
+-- =========================================
+-- 预订状态改为固定枚举；只有进行中的预订 (PENDING / CONFIRMED) 占用时间段
+-- =========================================
+
+-- 1. 清理历史上随便写入的状态值
+UPDATE reservation SET status = UPPER(TRIM(status)) WHERE status IS NOT NULL;
+UPDATE reservation SET status = 'CANCELLED' WHERE status = 'CANCELED';
+UPDATE reservation SET status = 'CONFIRMED'
+WHERE status IS NULL
+   OR status NOT IN ('PENDING', 'CONFIRMED', 'CANCELLED', 'COMPLETED', 'NO_SHOW');
+
+ALTER TABLE reservation ALTER COLUMN status SET NOT NULL;
+ALTER TABLE reservation
+    ADD CONSTRAINT ck_reservation_status
+    CHECK (status IN ('PENDING', 'CONFIRMED', 'CANCELLED', 'COMPLETED', 'NO_SHOW'));
+
+-- 2. 排他约束只约束进行中的预订 (原来只排除了 CANCELLED)
+ALTER TABLE reservation DROP CONSTRAINT IF EXISTS ex_reservation_table_overlap;
+ALTER TABLE reservation
+    ADD CONSTRAINT ex_reservation_table_overlap
+    EXCLUDE USING gist (
+        table_id WITH =,
+        tsrange(reservation_time, end_time) WITH &&
+    )
+    WHERE (reservation_time IS NOT NULL AND status IN ('PENDING', 'CONFIRMED'));
+
+-- 3. 冲突检查 / 可用时段查询只扫描进行中的预订
+CREATE INDEX IF NOT EXISTS idx_reservation_active_table_time
+    ON reservation (table_id, reservation_time, end_time)
+    INCLUDE (id)
+    WHERE status IN ('PENDING', 'CONFIRMED');
@@ -0,0 +1,135 @@
+-- =========================================
+-- 预订表按 reservation_time 做月度范围分区
+--   * 热点查询 (冲突检测 / 可用时段 / 时间线加载) 都带 reservation_time 上下界，只会命中当月和下月分区
+--   * 新分区和旧分区的归档由 ReservationPartitionMaintenance 定时调用下面两个函数完成
+--   * 营业时间 09:00-22:00，预订不会跨天，更不会跨月，所以每个分区各自的排他约束等价于原来的全表约束
+-- =========================================
+
+-- 1. 旧表改名，建分区父表 (分区键必须是主键的一部分，且不能为空)
+ALTER TABLE reservation RENAME TO reservation_unpartitioned;
+
+CREATE TABLE reservation (
+    id               BIGINT      NOT NULL,
+    customer_id      BIGINT,
+    table_id         BIGINT,
+    reservation_time TIMESTAMP   NOT NULL,
+    duration_minutes INT         DEFAULT 60,
+    status           VARCHAR(50) NOT NULL DEFAULT 'PENDING',
+    end_time         TIMESTAMP,
+
+    CONSTRAINT ck_reservation_status
+        CHECK (status IN ('PENDING', 'CONFIRMED', 'CANCELLED', 'COMPLETED', 'NO_SHOW'))
+) PARTITION BY RANGE (reservation_time);
+
+-- 兜底分区：接住还没建月分区的远期预订；建对应月分区时这些行会被搬过去
+CREATE TABLE reservation_default PARTITION OF reservation DEFAULT;
+ALTER TABLE reservation_default
+    ADD CONSTRAINT reservation_default_no_overlap
+    EXCLUDE USING gist (
+        table_id WITH =,
+        tsrange(reservation_time, end_time) WITH &&
+    )
+    WHERE (status IN ('PENDING', 'CONFIRMED'));
+
+-- 2. 建月分区: 先建普通表、带上与分区边界一致的 CHECK 和排他约束，再 ATTACH
+--    (ATTACH 只需要 SHARE UPDATE EXCLUSIVE 锁，不阻塞对父表的读写；CHECK 让 ATTACH 跳过全表校验)
+--    已存在则返回 NULL，可以重复调用
+CREATE OR REPLACE FUNCTION create_reservation_partition(month_start DATE)
+RETURNS TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+    from_ts TIMESTAMP := date_trunc('month', month_start);
+    to_ts   TIMESTAMP := date_trunc('month', month_start) + INTERVAL '1 month';
+    part    TEXT      := 'reservation_' || to_char(from_ts, '"y"YYYY"m"MM');
+BEGIN
+    IF to_regclass(part) IS NOT NULL THEN
+        RETURN NULL;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE reservation INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', part);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (reservation_time >= %L AND reservation_time < %L)',
+                   part, part || '_bounds', from_ts, to_ts);
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist ('
+                   '    table_id WITH =, tsrange(reservation_time, end_time) WITH &&'
+                   ') WHERE (status IN (''PENDING'', ''CONFIRMED''))',
+                   part, part || '_no_overlap');
+
+    -- 之前落进兜底分区的这个月的预订搬到新分区
+    EXECUTE format('WITH moved AS ('
+                   '    DELETE FROM reservation_default'
+                   '    WHERE reservation_time >= %L AND reservation_time < %L'
+                   '    RETURNING *'
+                   ') INSERT INTO %I SELECT * FROM moved',
+                   from_ts, to_ts, part);
+
+    EXECUTE format('ALTER TABLE reservation ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   part, from_ts, to_ts);
+    RETURN part;
+END;
+$$;
+
+-- 3. 归档: 结束时间早于 cutoff 的月分区从父表上摘下来，移到 reservation_archive schema
+--    数据原样保留在归档表里，只是不再参与任何在线查询
+CREATE SCHEMA IF NOT EXISTS reservation_archive;
+
+CREATE OR REPLACE FUNCTION archive_reservation_partitions(cutoff DATE)
+RETURNS SETOF TEXT
+LANGUAGE plpgsql AS $$
+DECLARE
+    part TEXT;
+BEGIN
+    FOR part IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'reservation'::regclass
+          AND c.relname ~ '^reservation_y[0-9]{4}m[0-9]{2}$'
+          AND to_date(substring(c.relname FROM 14 FOR 4) || substring(c.relname FROM 19 FOR 2), 'YYYYMM')
+              + INTERVAL '1 month' <= cutoff
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('ALTER TABLE reservation DETACH PARTITION %I', part);
+        EXECUTE format('ALTER TABLE %I SET SCHEMA reservation_archive', part);
+        RETURN NEXT part;
+    END LOOP;
+END;
+$$;
+
+-- 4. 为已有数据和未来 12 个月建分区，再把数据搬过来
+SELECT create_reservation_partition(month::date)
+FROM generate_series(
+         date_trunc('month', LEAST(
+             (SELECT MIN(reservation_time) FROM reservation_unpartitioned),
+             now()::timestamp)),
+         date_trunc('month', now()::timestamp) + INTERVAL '12 months',
+         INTERVAL '1 month') AS month;
+
+INSERT INTO reservation (id, customer_id, table_id, reservation_time, duration_minutes, status, end_time)
+SELECT id, customer_id, table_id, reservation_time, duration_minutes, status, end_time
+FROM reservation_unpartitioned
+WHERE reservation_time IS NOT NULL;
+
+-- 没有预订时间的历史脏数据没法分区，原样留档
+CREATE TABLE reservation_archive.reservation_without_time AS
+SELECT * FROM reservation_unpartitioned WHERE reservation_time IS NULL;
+
+DROP TABLE reservation_unpartitioned;
+
+-- 5. 主键 / 外键 / 索引建在父表上，自动下发到每个分区 (包括以后 ATTACH 的分区)
+ALTER TABLE reservation ADD CONSTRAINT reservation_pkey PRIMARY KEY (id, reservation_time);
+
+ALTER TABLE reservation
+    ADD CONSTRAINT fk_reservation_customer FOREIGN KEY (customer_id) REFERENCES customer(id);
+ALTER TABLE reservation
+    ADD CONSTRAINT fk_reservation_table FOREIGN KEY (table_id) REFERENCES restaurant_table(id);
+
+CREATE INDEX idx_reservation_table_time
+    ON reservation (table_id, reservation_time, end_time) INCLUDE (id);
+
+CREATE INDEX idx_reservation_customer
+    ON reservation (customer_id);
+
+CREATE INDEX idx_reservation_active_table_time
+    ON reservation (table_id, reservation_time, end_time)
+    INCLUDE (id)
+    WHERE status IN ('PENDING', 'CONFIRMED');
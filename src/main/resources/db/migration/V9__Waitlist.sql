@@ -0,0 +1,32 @@
+-- =========================================
+-- 候补名单 (Waitlist)
+-- 取消 / 改期腾出时段后，自动把最合适的候补晋升为预订 (WaitlistPromoter)
+-- =========================================
+CREATE SEQUENCE IF NOT EXISTS waitlist_entry_seq INCREMENT BY 50;
+
+CREATE TABLE waitlist_entry (
+    id               BIGINT      PRIMARY KEY,
+    customer_id      BIGINT      NOT NULL,
+    restaurant_id    BIGINT      NOT NULL,
+    num_guests       INT         NOT NULL,
+    duration_minutes INT         NOT NULL,
+    earliest_start   TIMESTAMP   NOT NULL,
+    latest_start     TIMESTAMP   NOT NULL,
+    status           VARCHAR(20) NOT NULL DEFAULT 'WAITING',
+    reservation_id   BIGINT,     -- reservation 是分区表 (主键含 reservation_time)，这里不建外键
+    created_at       TIMESTAMP   NOT NULL DEFAULT now(),
+
+    -- 候补是临时数据，客户 / 餐厅删除时一起删除
+    CONSTRAINT fk_waitlist_customer FOREIGN KEY (customer_id) REFERENCES customer(id) ON DELETE CASCADE,
+    CONSTRAINT fk_waitlist_restaurant FOREIGN KEY (restaurant_id) REFERENCES restaurant(id) ON DELETE CASCADE,
+    CONSTRAINT ck_waitlist_status CHECK (status IN ('WAITING', 'PROMOTED', 'CANCELLED')),
+    CONSTRAINT ck_waitlist_window CHECK (earliest_start <= latest_start)
+);
+
+-- 晋升时只查某家餐厅、时间窗口和腾出时段相交的等待中候补
+CREATE INDEX idx_waitlist_waiting
+    ON waitlist_entry (restaurant_id, earliest_start, latest_start)
+    WHERE status = 'WAITING';
+
+CREATE INDEX idx_waitlist_customer
+    ON waitlist_entry (customer_id);
@@ -0,0 +1,94 @@
+package com.restaurant.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionHoldProfilerTest {
+
+    private EmbeddedDatabase database;
+    private SimpleMeterRegistry meterRegistry;
+    private ConnectionHoldProfiler profiler;
+    private ProfilingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        meterRegistry = new SimpleMeterRegistry();
+        profiler = new ConnectionHoldProfiler(10_000, 2, meterRegistry);
+        dataSource = new ProfilingDataSource(database, () -> profiler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ConnectionHoldProfiler.exitEndpoint();
+        database.shutdown();
+    }
+
+    @Test
+    void transaction_IsRecordedAsOneLeaseForTheCurrentEndpoint() {
+        ConnectionHoldProfiler.enterEndpoint("GET /api/test");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource)).executeWithoutResult(status -> {
+            jdbc.queryForObject("SELECT 1", Integer.class);
+            jdbc.queryForObject("SELECT 2", Integer.class);
+        });
+
+        ConnectionHoldProfiler.EndpointSnapshot stats = profiler.snapshot().get("GET /api/test");
+        assertEquals(1, stats.leases());
+        assertEquals(2, stats.maxStatements());
+        assertFalse(stats.flagged());
+        assertEquals(1, meterRegistry.get("db.connection.hold").tag("endpoint", "GET /api/test").timer().count());
+    }
+
+    @Test
+    void leaseOverStatementBudget_FlagsEndpoint() {
+        ConnectionHoldProfiler.enterEndpoint("GET /api/chatty");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource)).executeWithoutResult(status -> {
+            for (int i = 0; i < 5; i++) {
+                jdbc.queryForObject("SELECT 1", Integer.class);
+            }
+        });
+
+        ConnectionHoldProfiler.EndpointSnapshot stats = profiler.snapshot().get("GET /api/chatty");
+        assertTrue(stats.flagged());
+        assertEquals(1, stats.overBudget());
+        assertEquals(1.0, meterRegistry.get("db.connection.hold.over.budget")
+                .tag("endpoint", "GET /api/chatty").counter().count());
+    }
+
+    @Test
+    void workOutsideARequest_IsAttributedToBackground() {
+        new JdbcTemplate(dataSource).queryForObject("SELECT 1", Integer.class);
+
+        Map<String, ConnectionHoldProfiler.EndpointSnapshot> snapshot = profiler.snapshot();
+        assertEquals(1, snapshot.get(ConnectionHoldProfiler.BACKGROUND).leases());
+        assertEquals(1, snapshot.get(ConnectionHoldProfiler.BACKGROUND).maxStatements());
+    }
+
+    @Test
+    void reset_ClearsNumbers() {
+        new JdbcTemplate(dataSource).queryForObject("SELECT 1", Integer.class);
+
+        profiler.reset();
+
+        assertEquals(0, profiler.snapshot().get(ConnectionHoldProfiler.BACKGROUND).leases());
+    }
+}
@@ -0,0 +1,115 @@
+package com.restaurant.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two embedded H2 databases standing in for primary and replica; each has a one-row
+ * table naming itself, so a query shows which one served it.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.setStaleReadsAllowed(false);
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void staleTolerantReadOnlyTransaction_GoesToReplica() {
+        DataSource routing = routing(replica);
+
+        ReplicaRoutingDataSource.setStaleReadsAllowed(true);
+
+        assertEquals("replica", whoAmI(routing, true));
+    }
+
+    @Test
+    void readOnlyTransactionWithoutFlag_StaysOnPrimary() {
+        DataSource routing = routing(replica);
+
+        assertEquals("primary", whoAmI(routing, true));
+    }
+
+    @Test
+    void readWriteTransaction_StaysOnPrimaryEvenWhenFlagged() {
+        DataSource routing = routing(replica);
+
+        ReplicaRoutingDataSource.setStaleReadsAllowed(true);
+
+        assertEquals("primary", whoAmI(routing, false));
+    }
+
+    @Test
+    void replicaUnavailable_FallsBackToPrimaryAndSkipsReplicaForAWhile() {
+        int[] attempts = {0};
+        DataSource broken = new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                attempts[0]++;
+                throw new SQLException("replica down");
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return getConnection();
+            }
+        };
+        DataSource routing = routing(broken);
+
+        ReplicaRoutingDataSource.setStaleReadsAllowed(true);
+
+        assertEquals("primary", whoAmI(routing, true));
+        assertEquals("primary", whoAmI(routing, true));
+        assertEquals(1, attempts[0]);
+    }
+
+    private DataSource routing(DataSource replicaTarget) {
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replicaTarget, 60_000, new SimpleMeterRegistry()));
+    }
+
+    private static String whoAmI(DataSource dataSource, boolean readOnly) {
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        tx.setReadOnly(readOnly);
+        return tx.execute(status ->
+                new JdbcTemplate(dataSource).queryForObject("SELECT name FROM whoami", String.class));
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase db = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbc = new JdbcTemplate(db);
+        jdbc.execute("CREATE TABLE whoami (name VARCHAR(20))");
+        jdbc.update("INSERT INTO whoami VALUES (?)", name);
+        return db;
+    }
+}
@@ -0,0 +1,91 @@
+package com.restaurant.integration;
+
+import com.restaurant.dto.ReservationDTO;
+import com.restaurant.dto.ReservationFilter;
+import com.restaurant.entity.Customer;
+import com.restaurant.entity.Reservation;
+import com.restaurant.entity.Restaurant;
+import com.restaurant.entity.RestaurantTable;
+import com.restaurant.repository.CustomerRepository;
+import com.restaurant.repository.ReservationRepository;
+import com.restaurant.repository.RestaurantRepository;
+import com.restaurant.repository.TableRepository;
+import com.restaurant.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Update and delete go through the (id, reservation_time) statements of ReservationRepository
+ * instead of Hibernate's id-only ones; this runs them against a real database.
+ */
+@SpringBootTest
+public class ReservationWriteIntegrationTest {
+
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private ReservationRepository reservationRepository;
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private TableRepository tableRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void updateAndDelete_AddressRowByIdAndReservationTime() {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setName("Partition Bistro");
+        restaurant = restaurantRepository.save(restaurant);
+
+        RestaurantTable table = new RestaurantTable();
+        table.setRestaurant(restaurant);
+        table.setTableNumber(1);
+        table.setCapacity(4);
+        table.setAvailable(true);
+        table = tableRepository.save(table);
+
+        Customer customer = new Customer();
+        customer.setName("Zhang San");
+        customer = customerRepository.save(customer);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(2).withHour(18).withMinute(0).withSecond(0).withNano(0);
+        ReservationDTO dto = new ReservationDTO();
+        dto.setCustomerId(customer.getId());
+        dto.setTableId(table.getId());
+        dto.setReservationTime(start);
+        dto.setDurationMinutes(60);
+        dto.setNumGuests(2);
+        Long id = reservationService.createReservation(dto).getId();
+
+        // 挪到下个月：旧的 (id, reservation_time) 定位，新值整体写入
+        LocalDateTime moved = start.plusMonths(1);
+        ReservationDTO change = new ReservationDTO();
+        change.setReservationTime(moved);
+        change.setDurationMinutes(90);
+        reservationService.updateReservation(id, start, change);
+
+        Reservation stored = reservationRepository.findById(id).orElseThrow();
+        assertEquals(moved, stored.getReservationTime());
+        assertEquals(90, stored.getDurationMinutes());
+        assertEquals(moved.plusMinutes(90), stored.getEndTime());
+        assertEquals(table.getId(), reservationService.getReservationById(id).getTableId());
+
+        // 只带上筛选条件里出现的列
+        ReservationFilter filter = new ReservationFilter();
+        filter.setRestaurantId(restaurant.getId());
+        filter.setFrom(moved);
+        assertEquals(List.of(id), reservationService.getReservations(filter, null, 10).getItems()
+                .stream().map(ReservationDTO::getId).toList());
+
+        reservationService.deleteReservation(id, null);
+
+        assertTrue(reservationRepository.findById(id).isEmpty());
+    }
+}
@@ -0,0 +1,90 @@
+package com.restaurant.integration;
+
+import com.restaurant.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 虚拟线程模式下，同时在途的阻塞请求可以超过 Tomcat 默认的 200 个平台线程。
+ *
+ * 测试接口模拟一个阻塞在数据库上的预订请求：每个请求都卡在同一个 CyclicBarrier 上，
+ * 只有 300 个请求同时在服务端执行时才会放行。平台线程池 (max 200) 下屏障永远凑不齐，请求超时失败。
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.threads.virtual.enabled=true",
+                "rate-limit.enabled=false" // 300 个同一用户的并发请求会超过默认突发额度
+        }
+)
+@Import(VirtualThreadConcurrencyTest.BlockingController.class)
+class VirtualThreadConcurrencyTest {
+
+    private static final int CONCURRENT_REQUESTS = 300;
+
+    private static final CyclicBarrier BARRIER = new CyclicBarrier(CONCURRENT_REQUESTS);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void blockingRequests_ScalePastPlatformThreadLimit() throws Exception {
+        String token = jwtUtil.generateToken("admin", "ROLE_ADMIN");
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/test/blocking"))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(executor)
+                    .build();
+
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                HttpResponse<String> r = response.get(30, TimeUnit.SECONDS);
+                assertEquals(200, r.statusCode());
+                assertEquals("virtual", r.body());
+            }
+        }
+    }
+
+    @RestController
+    static class BlockingController {
+
+        @GetMapping("/api/test/blocking")
+        String block() throws Exception {
+            // 相当于等待数据库：线程被阻塞，直到足够多的请求同时在途
+            BARRIER.await(20, TimeUnit.SECONDS);
+            return Thread.currentThread().isVirtual() ? "virtual" : "platform";
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.restaurant.security;
+
+import com.restaurant.exception.GlobalExceptionHandler;
+import com.restaurant.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BulkheadPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordEncoder delegate = mock(PasswordEncoder.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    private BulkheadPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void encode_RunsDelegateAndRecordsTimer() {
+        encoder = new BulkheadPasswordEncoder(delegate, 1, 1, 5000, meterRegistry);
+        when(delegate.encode("secret")).thenReturn("hash");
+        when(delegate.matches("secret", "hash")).thenReturn(true);
+
+        assertEquals("hash", encoder.encode("secret"));
+        assertTrue(encoder.matches("secret", "hash"));
+
+        assertEquals(1, meterRegistry.get("auth.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(1, meterRegistry.get("auth.password.hash").tag("operation", "matches").timer().count());
+        assertEquals(0, rejected());
+    }
+
+    @Test
+    void encode_FullQueue_FailsFastWithServiceUnavailable() throws Exception {
+        encoder = new BulkheadPasswordEncoder(delegate, 1, 1, 5000, meterRegistry);
+        blockDelegate();
+
+        Future<String> running = callers.submit(() -> encoder.encode("first"));
+        awaitGauge("auth.password.hash.active", 1);
+        Future<String> queued = callers.submit(() -> encoder.encode("second"));
+        awaitGauge("auth.password.hash.queue.depth", 1);
+
+        long started = System.nanoTime();
+        assertThrows(ServiceUnavailableException.class, () -> encoder.encode("third"));
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(1), "rejection must not wait");
+        assertEquals(1, rejected());
+
+        release.countDown();
+        assertEquals("hash", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash", queued.get(5, TimeUnit.SECONDS));
+        awaitGauge("auth.password.hash.active", 0);
+        assertEquals(0, gauge("auth.password.hash.queue.depth"));
+    }
+
+    @Test
+    void matches_SlowerThanTimeout_ThrowsServiceUnavailable() {
+        encoder = new BulkheadPasswordEncoder(delegate, 1, 1, 50, meterRegistry);
+        blockDelegate();
+
+        assertThrows(ServiceUnavailableException.class, () -> encoder.matches("secret", "hash"));
+        assertEquals(1, rejected());
+
+        // 超时的任务被中断，工作线程空出来
+        awaitGauge("auth.password.hash.active", 0);
+    }
+
+    @Test
+    void encode_DelegateFailure_IsRethrownAsIs() {
+        encoder = new BulkheadPasswordEncoder(delegate, 1, 1, 5000, meterRegistry);
+        when(delegate.encode(any())).thenThrow(new IllegalArgumentException("too long"));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> encoder.encode("x"));
+        assertEquals("too long", ex.getMessage());
+        assertEquals(0, rejected());
+    }
+
+    @Test
+    void handler_MapsServiceUnavailableTo503WithRetryAfter() {
+        encoder = new BulkheadPasswordEncoder(delegate, 1, 1, 50, meterRegistry);
+        blockDelegate();
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class,
+                () -> encoder.encode("secret"));
+
+        ResponseEntity<?> response = new GlobalExceptionHandler(meterRegistry).handleServiceUnavailable(ex);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, meterRegistry.get("api.errors")
+                .tag("status", "503")
+                .tag("exception", "ServiceUnavailableException")
+                .counter().count());
+    }
+
+    /* -------------------- HELPERS -------------------- */
+
+    private void blockDelegate() {
+        when(delegate.encode(any())).thenAnswer(inv -> {
+            release.await();
+            return "hash";
+        });
+        when(delegate.matches(any(), anyString())).thenAnswer(inv -> {
+            release.await();
+            return true;
+        });
+    }
+
+    private double rejected() {
+        return meterRegistry.get("auth.password.hash.rejected").counter().count();
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private void awaitGauge(String name, double expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gauge(name) != expected) {
+            if (System.nanoTime() > deadline) {
+                fail(name + " did not reach " + expected + ", was " + gauge(name));
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
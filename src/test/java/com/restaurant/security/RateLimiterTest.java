@@ -0,0 +1,106 @@
+package com.restaurant.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(42 * SECOND);
+
+    @Test
+    void tryAcquire_AllowsBurstThenRefillsAtRate() {
+        RateLimiter limiter = new RateLimiter(10, 5, 1000, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("user:ann"));
+        }
+        long wait = limiter.tryAcquire("user:ann");
+        assertEquals(SECOND / 10, wait);
+
+        clock.addAndGet(wait);
+        assertEquals(0, limiter.tryAcquire("user:ann"));
+        assertTrue(limiter.tryAcquire("user:ann") > 0);
+    }
+
+    @Test
+    void tryAcquire_KeysHaveSeparateBuckets() {
+        RateLimiter limiter = new RateLimiter(1, 1, 1000, clock::get);
+
+        assertEquals(0, limiter.tryAcquire("ip:10.0.0.1"));
+        assertTrue(limiter.tryAcquire("ip:10.0.0.1") > 0);
+        assertEquals(0, limiter.tryAcquire("ip:10.0.0.2"));
+    }
+
+    @Test
+    void tryAcquire_IdleBucketDoesNotSaveUpMoreThanBurst() {
+        RateLimiter limiter = new RateLimiter(100, 3, 1000, clock::get);
+        limiter.tryAcquire("user:ann");
+
+        clock.addAndGet(60 * SECOND);
+
+        int allowed = 0;
+        while (limiter.tryAcquire("user:ann") == 0) {
+            allowed++;
+        }
+        assertEquals(3, allowed);
+    }
+
+    @Test
+    void tryAcquire_ConcurrentCallersNeverExceedBurst() throws Exception {
+        int threads = 16;
+        int attemptsPerThread = 10_000;
+        int burst = 250;
+        RateLimiter limiter = new RateLimiter(1, burst, 1000, clock::get);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int allowed = 0;
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (limiter.tryAcquire("user:hot") == 0) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                }));
+            }
+            start.countDown();
+
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get(30, TimeUnit.SECONDS);
+            }
+            // clock frozen: exactly the burst gets through, no token handed out twice
+            assertEquals(burst, total);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void buckets_AreBoundedByMaxKeys() {
+        RateLimiter limiter = new RateLimiter(10, 10, 100, clock::get);
+
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("ip:" + i);
+        }
+
+        assertTrue(limiter.estimatedKeys() <= 100);
+    }
+}
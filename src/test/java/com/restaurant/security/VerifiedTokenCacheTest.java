@@ -0,0 +1,50 @@
+package com.restaurant.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private final VerifiedTokenCache cache = new VerifiedTokenCache();
+
+    @Test
+    void get_ServesTokenUntilItExpires() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        cache.put("long-lived", new VerifiedTokenCache.VerifiedToken("ann", "USER", now + 60_000));
+        cache.put("short-lived", new VerifiedTokenCache.VerifiedToken("bob", "USER", now + 50));
+
+        assertEquals("ann", cache.get("long-lived").username());
+        assertEquals("bob", cache.get("short-lived").username());
+
+        Thread.sleep(100);
+
+        assertNull(cache.get("short-lived"));
+        assertEquals("ann", cache.get("long-lived").username());
+    }
+
+    @Test
+    void put_ExpiredTokenIsNotCached() {
+        cache.put("expired", new VerifiedTokenCache.VerifiedToken("ann", "USER", System.currentTimeMillis() - 1));
+
+        assertNull(cache.get("expired"));
+    }
+
+    @Test
+    void put_BeyondCapacity_KeepsMostTokens() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        int total = VerifiedTokenCache.MAX_ENTRIES + 1_000;
+        for (int i = 0; i < total; i++) {
+            cache.put("token-" + i, new VerifiedTokenCache.VerifiedToken("user" + i, "USER", expiresAt));
+        }
+
+        // 满了只淘汰一部分，不再整体清空
+        int hits = 0;
+        for (int i = 0; i < total; i++) {
+            if (cache.get("token-" + i) != null) {
+                hits++;
+            }
+        }
+        assertTrue(hits >= VerifiedTokenCache.MAX_ENTRIES * 9 / 10, "hits: " + hits);
+    }
+}
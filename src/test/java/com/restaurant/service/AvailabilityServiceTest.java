@@ -0,0 +1,100 @@
+package com.restaurant.service;
+
+import com.restaurant.dto.TableAvailabilityDTO;
+import com.restaurant.entity.RestaurantTable;
+import com.restaurant.exception.ResourceNotFoundException;
+import com.restaurant.repository.BookedInterval;
+import com.restaurant.repository.ReservationRepository;
+import com.restaurant.repository.RestaurantRepository;
+import com.restaurant.repository.TableRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityServiceTest {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+    @Mock
+    private TableRepository tableRepository;
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @InjectMocks
+    private AvailabilityService availabilityService;
+
+    private final LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+    @Test
+    void freeStarts_RequiresConsecutiveFreeSlots() {
+        // slots 2 and 3 occupied
+        long occupied = 0b1100L;
+
+        long starts = AvailabilityService.freeStarts(occupied, 2);
+
+        assertTrue((starts & 1L) != 0);          // slots 0-1 free
+        assertEquals(0L, starts & 0b1110L);      // 1-2, 2-3, 3-4 overlap
+        assertTrue((starts & (1L << 4)) != 0);   // slots 4-5 free
+        assertEquals(0L, starts >>> 51);         // last slot cannot start a 2-slot booking
+    }
+
+    @Test
+    void getAvailability_ExcludesBookedSlotsAndSmallTables() {
+        RestaurantTable small = table(1L, 2);
+        RestaurantTable large = table(2L, 6);
+
+        when(restaurantRepository.existsById(1L)).thenReturn(true);
+        when(tableRepository.findByRestaurantId(1L)).thenReturn(List.of(small, large));
+        when(reservationRepository.findBookedIntervals(eq(1L), any(), any(), any()))
+                .thenReturn(List.of(interval(2L, tomorrow.atTime(12, 0), tomorrow.atTime(13, 0))));
+
+        List<TableAvailabilityDTO> result = availabilityService.getAvailability(1L, tomorrow, 4, 60);
+
+        assertEquals(1, result.size());
+        List<LocalTime> free = result.get(0).getFreeStartTimes();
+        assertTrue(free.contains(LocalTime.of(9, 0)));
+        assertTrue(free.contains(LocalTime.of(11, 0)));
+        assertFalse(free.contains(LocalTime.of(11, 15)));
+        assertFalse(free.contains(LocalTime.of(12, 45)));
+        assertTrue(free.contains(LocalTime.of(13, 0)));
+        assertTrue(free.contains(LocalTime.of(21, 0)));
+        assertFalse(free.contains(LocalTime.of(21, 15)));
+    }
+
+    @Test
+    void getAvailability_UnknownRestaurant_ThrowsNotFound() {
+        when(restaurantRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> availabilityService.getAvailability(99L, tomorrow, 2, 60));
+    }
+
+    private RestaurantTable table(Long id, int capacity) {
+        RestaurantTable t = new RestaurantTable();
+        t.setId(id);
+        t.setCapacity(capacity);
+        t.setAvailable(true);
+        return t;
+    }
+
+    private BookedInterval interval(Long tableId, LocalDateTime start, LocalDateTime end) {
+        return new BookedInterval() {
+            public Long getTableId() { return tableId; }
+            public LocalDateTime getStartTime() { return start; }
+            public LocalDateTime getEndTime() { return end; }
+        };
+    }
+}
@@ -0,0 +1,120 @@
+package com.restaurant.service;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.restaurant.dto.CustomerDTO;
+import com.restaurant.dto.ImportReportDTO;
+import com.restaurant.dto.ReservationDTO;
+import com.restaurant.exception.ConflictException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkImportServiceTest {
+
+    @Mock
+    private CustomerService customerService;
+    @Mock
+    private RestaurantTableService tableService;
+    @Mock
+    private ReservationService reservationService;
+
+    private BulkImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new BulkImportService(
+                customerService,
+                tableService,
+                reservationService,
+                JsonMapper.builder().findAndAddModules().build(),
+                Validation.buildDefaultValidatorFactory().getValidator()
+        );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importCustomers_Csv_SavesValidRowsInOneChunkAndReportsInvalidOnes() throws Exception {
+        String csv = """
+                name,email,phone
+                Zhang San,zhangsan@example.com,13800138001
+                ,missing-name@example.com,13800138002
+                Li Si,not-an-email,13800138003
+                Wang Wu,wangwu@example.com,13800138004
+                """;
+
+        ImportReportDTO report = importService.importCustomers(stream(csv), BulkImportService.Format.CSV);
+
+        ArgumentCaptor<List<CustomerDTO>> chunk = ArgumentCaptor.forClass(List.class);
+        verify(customerService).createCustomers(chunk.capture());
+        assertEquals(List.of("Zhang San", "Wang Wu"),
+                chunk.getValue().stream().map(CustomerDTO::getName).toList());
+
+        assertEquals(4, report.getTotalRows());
+        assertEquals(2, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals(2, report.getErrors().get(0).getRow());
+        assertEquals(3, report.getErrors().get(1).getRow());
+    }
+
+    @Test
+    void importReservations_RejectedChunk_RetriesRowByRow() throws Exception {
+        LocalDateTime time = LocalDateTime.now().plusDays(1).withHour(18).withMinute(0).withSecond(0).withNano(0);
+        String jsonl = line(1L, time) + "\n" + "{not json}\n" + line(2L, time) + "\n";
+
+        when(reservationService.createReservations(anyList()))
+                .thenThrow(new ConflictException("Reservations in the batch overlap on table 10."));
+        when(reservationService.createReservation(any(ReservationDTO.class)))
+                .thenReturn(new ReservationDTO())
+                .thenThrow(new ConflictException("Table is already reserved for the requested time slot."));
+
+        ImportReportDTO report = importService.importReservations(stream(jsonl), BulkImportService.Format.JSONL);
+
+        assertEquals(3, report.getTotalRows());
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertEquals(2, report.getErrors().get(0).getRow());  // malformed
+        assertEquals(3, report.getErrors().get(1).getRow());  // conflict
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importCustomers_Csv_QuotedHeaderColumns() throws Exception {
+        String csv = """
+                "name","email","phone"
+                "Zhao, Liu",zhaoliu@example.com,13800138005
+                """;
+
+        ImportReportDTO report = importService.importCustomers(stream(csv), BulkImportService.Format.CSV);
+
+        ArgumentCaptor<List<CustomerDTO>> chunk = ArgumentCaptor.forClass(List.class);
+        verify(customerService).createCustomers(chunk.capture());
+        assertEquals("Zhao, Liu", chunk.getValue().get(0).getName());
+        assertEquals("zhaoliu@example.com", chunk.getValue().get(0).getEmail());
+        assertEquals(1, report.getImported());
+    }
+
+    private String line(Long customerId, LocalDateTime time) {
+        return "{\"customerId\":" + customerId + ",\"tableId\":10,\"reservationTime\":\"" + time +
+               "\",\"durationMinutes\":60,\"numGuests\":2}";
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,5 +1,6 @@
 package com.restaurant.service;
 
+import com.restaurant.dto.CursorPage;
 import com.restaurant.dto.CustomerDTO;
 import com.restaurant.entity.Customer;
 import com.restaurant.exception.ResourceNotFoundException;
@@ -9,6 +10,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.util.Arrays;
 import java.util.List;
@@ -16,6 +18,8 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,22 +32,39 @@ class CustomerServiceTest {
     private CustomerService customerService;
 
     @Test
-    void getAllCustomers_ShouldReturnList() {
-        Customer c1 = new Customer(); c1.setId(1L); c1.setName("Alice");
-        Customer c2 = new Customer(); c2.setId(2L); c2.setName("Bob");
+    void getCustomers_ShouldReturnList() {
+        CustomerDTO c1 = new CustomerDTO(1L, "Alice", null, null);
+        CustomerDTO c2 = new CustomerDTO(2L, "Bob", null, null);
 
-        when(customerRepository.findAll()).thenReturn(Arrays.asList(c1, c2));
+        when(customerRepository.findDtoPage(eq(0L), any(Limit.class)))
+                .thenReturn(Arrays.asList(c1, c2));
 
-        List<CustomerDTO> result = customerService.getAllCustomers();
+        CursorPage<CustomerDTO> result = customerService.getCustomers(null, null);
 
-        assertEquals(2, result.size());
-        assertEquals("Alice", result.get(0).getName());
+        assertEquals(2, result.getItems().size());
+        assertEquals("Alice", result.getItems().get(0).getName());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getCustomers_WhenMoreRowsThanLimit_ShouldReturnNextCursor() {
+        CustomerDTO c1 = new CustomerDTO(); c1.setId(5L);
+        CustomerDTO c2 = new CustomerDTO(); c2.setId(7L);
+        CustomerDTO c3 = new CustomerDTO(); c3.setId(9L);
+
+        when(customerRepository.findDtoPage(eq(3L), any(Limit.class)))
+                .thenReturn(Arrays.asList(c1, c2, c3));
+
+        CursorPage<CustomerDTO> result = customerService.getCustomers(3L, 2);
+
+        assertEquals(2, result.getItems().size());
+        assertEquals(7L, result.getNextCursor());
     }
 
     @Test
     void getCustomerById_WhenExists_ShouldReturnDTO() {
-        Customer c = new Customer(); c.setId(1L); c.setName("Alice");
-        when(customerRepository.findById(1L)).thenReturn(Optional.of(c));
+        CustomerDTO c = new CustomerDTO(1L, "Alice", null, null);
+        when(customerRepository.findDtoById(1L)).thenReturn(Optional.of(c));
 
         CustomerDTO result = customerService.getCustomerById(1L);
 
@@ -53,7 +74,7 @@ class CustomerServiceTest {
 
     @Test
     void getCustomerById_WhenNotExists_ShouldThrowException() {
-        when(customerRepository.findById(99L)).thenReturn(Optional.empty());
+        when(customerRepository.findDtoById(99L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> customerService.getCustomerById(99L));
     }
@@ -71,6 +92,25 @@ class CustomerServiceTest {
         assertEquals("New User", result.getName());
     }
 
+    @Test
+    void createCustomers_ShouldSaveAllInOneCall() {
+        CustomerDTO a = new CustomerDTO(); a.setName("Alice");
+        CustomerDTO b = new CustomerDTO(); b.setName("Bob");
+
+        when(customerRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Customer> toSave = invocation.getArgument(0);
+            long id = 1;
+            for (Customer c : toSave) c.setId(id++);
+            return toSave;
+        });
+
+        List<CustomerDTO> result = customerService.createCustomers(List.of(a, b));
+
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(1).getId());
+        verify(customerRepository, times(1)).saveAll(anyList());
+    }
+
     @Test
     void updateCustomer_WhenExists_ShouldUpdateFields() {
         Customer existing = new Customer(); existing.setId(1L); existing.setName("Old Name");
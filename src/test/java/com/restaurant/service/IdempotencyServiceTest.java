@@ -0,0 +1,211 @@
+package com.restaurant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.dto.CustomerDTO;
+import com.restaurant.entity.IdempotencyRecord;
+import com.restaurant.exception.ConflictException;
+import com.restaurant.exception.UnprocessableEntityException;
+import com.restaurant.repository.IdempotencyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String ROUTE = "POST /api/customers";
+
+    @Mock
+    private IdempotencyRepository repository;
+
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new IdempotencyService(repository, new ObjectMapper(), 24, 60, 100);
+    }
+
+    @Test
+    void execute_WithoutKey_JustRunsAction() {
+        ResponseEntity<CustomerDTO> response = service.execute(null, ROUTE, customer("Ann"), CustomerDTO.class,
+                () -> new ResponseEntity<>(customer("Ann"), HttpStatus.CREATED));
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void execute_SameKeyTwice_ReplaysFirstResponseWithoutRunningAgain() {
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        when(repository.complete(anyString(), any(), anyInt(), any(), any())).thenReturn(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        ResponseEntity<CustomerDTO> first = service.execute("k1", ROUTE, customer("Ann"), CustomerDTO.class,
+                () -> created(calls));
+        ResponseEntity<CustomerDTO> second = service.execute("k1", ROUTE, customer("Ann"), CustomerDTO.class,
+                () -> created(calls));
+
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.CREATED, second.getStatusCode());
+        assertEquals(first.getBody(), second.getBody());
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        verify(repository).saveAndFlush(any(IdempotencyRecord.class));
+        verify(repository).complete(anyString(), any(), eq(201), anyString(), any());
+    }
+
+    @Test
+    void execute_KeyStoredByAnotherInstance_ReplaysFromDatabase() {
+        IdempotencyRecord stored = new IdempotencyRecord();
+        stored.setScope("anonymous " + ROUTE + " k2");
+        stored.setResponseStatus(201);
+        stored.setResponseBody("{\"id\":7,\"name\":\"Ann\"}");
+        stored.setExpiresAt(LocalDateTime.now().plusHours(1));
+
+        when(repository.findById(anyString())).thenAnswer(inv -> {
+            stored.setRequestHash(hashOf(customer("Ann")));
+            return Optional.of(stored);
+        });
+
+        ResponseEntity<CustomerDTO> response = service.execute("k2", ROUTE, customer("Ann"), CustomerDTO.class,
+                () -> fail("must not run again"));
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(7L, response.getBody().getId());
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void execute_SameKeyDifferentRequest_Throws422() {
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+        when(repository.complete(anyString(), any(), anyInt(), any(), any())).thenReturn(1);
+        service.execute("k3", ROUTE, customer("Ann"), CustomerDTO.class, () -> created(new AtomicInteger()));
+
+        assertThrows(UnprocessableEntityException.class,
+                () -> service.execute("k3", ROUTE, customer("Bob"), CustomerDTO.class,
+                        () -> created(new AtomicInteger())));
+    }
+
+    @Test
+    void execute_RequestStillInFlight_Throws409() {
+        IdempotencyRecord claim = new IdempotencyRecord();
+        claim.setExpiresAt(LocalDateTime.now().plusSeconds(30));
+        when(repository.findById(anyString())).thenAnswer(inv -> {
+            claim.setRequestHash(hashOf(customer("Ann")));
+            return Optional.of(claim);
+        });
+
+        assertThrows(ConflictException.class,
+                () -> service.execute("k4", ROUTE, customer("Ann"), CustomerDTO.class,
+                        () -> fail("must not run while the first request is in flight")));
+    }
+
+    @Test
+    void execute_ActionFails_ReleasesClaimSoClientCanRetry() {
+        when(repository.findById(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(IllegalStateException.class,
+                () -> service.execute("k5", ROUTE, customer("Ann"), CustomerDTO.class,
+                        () -> { throw new IllegalStateException("boom"); }));
+
+        verify(repository).releaseClaim(eq("anonymous " + ROUTE + " k5"), any());
+        verify(repository, never()).complete(anyString(), any(), anyInt(), any(), any());
+
+        // 放掉的认领不再续约
+        service.heartbeat();
+        verify(repository, never()).renewClaim(any(), any(), any());
+    }
+
+    @Test
+    void heartbeat_RenewsClaimWhileRequestRuns() {
+        String scope = "anonymous " + ROUTE + " k6";
+        when(repository.findById(scope)).thenReturn(Optional.empty());
+        when(repository.renewClaim(eq(scope), any(), any())).thenReturn(1);
+        when(repository.complete(eq(scope), any(), eq(201), anyString(), any())).thenReturn(1);
+
+        // 第一次请求比认领超时还慢：执行期间心跳续约，认领不会过期被别人接手
+        service.execute("k6", ROUTE, customer("Ann"), CustomerDTO.class, () -> {
+            service.heartbeat();
+            service.heartbeat();
+            return created(new AtomicInteger());
+        });
+
+        ArgumentCaptor<IdempotencyRecord> claim = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(repository).saveAndFlush(claim.capture());
+        LocalDateTime claimedAt = claim.getValue().getCreatedAt();
+        verify(repository, times(2)).renewClaim(eq(scope), eq(claimedAt), any());
+        verify(repository).complete(eq(scope), eq(claimedAt), eq(201), anyString(), any());
+
+        // 完成之后不再续约
+        service.heartbeat();
+        verify(repository, times(2)).renewClaim(any(), any(), any());
+    }
+
+    @Test
+    void execute_StoringResponseFails_KeepsClaimAndRetriesOnHeartbeat() {
+        String scope = "anonymous " + ROUTE + " k7";
+        when(repository.findById(scope)).thenReturn(Optional.empty());
+        when(repository.complete(eq(scope), any(), eq(201), anyString(), any()))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"))
+                .thenReturn(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        ResponseEntity<CustomerDTO> first = service.execute("k7", ROUTE, customer("Ann"), CustomerDTO.class,
+                () -> created(calls));
+        assertEquals(HttpStatus.CREATED, first.getStatusCode());
+        verify(repository, never()).releaseClaim(any(), any());
+
+        // 响应还没存进库：本机的重试直接重放，不会再执行一次
+        ResponseEntity<CustomerDTO> retry = service.execute("k7", ROUTE, customer("Ann"), CustomerDTO.class,
+                () -> created(calls));
+        assertEquals(1, calls.get());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+
+        service.heartbeat();
+        verify(repository, times(2)).complete(eq(scope), any(), eq(201), anyString(), any());
+
+        // 存好之后放下认领
+        service.heartbeat();
+        verify(repository, times(2)).complete(any(), any(), anyInt(), any(), any());
+        verify(repository, never()).renewClaim(any(), any(), any());
+    }
+
+    private ResponseEntity<CustomerDTO> created(AtomicInteger calls) {
+        calls.incrementAndGet();
+        CustomerDTO dto = customer("Ann");
+        dto.setId(1L);
+        return new ResponseEntity<>(dto, HttpStatus.CREATED);
+    }
+
+    /** Same fingerprint the service computes: SHA-256 of the compact JSON body. */
+    private static String hashOf(Object request) throws Exception {
+        byte[] json = new ObjectMapper().writeValueAsBytes(request);
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+    }
+
+    private static CustomerDTO customer(String name) {
+        CustomerDTO dto = new CustomerDTO();
+        dto.setName(name);
+        dto.setEmail(name.toLowerCase() + "@example.com");
+        dto.setPhone("123");
+        return dto;
+    }
+}
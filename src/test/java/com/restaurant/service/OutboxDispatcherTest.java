@@ -0,0 +1,90 @@
+package com.restaurant.service;
+
+import com.restaurant.entity.OutboxEvent;
+import com.restaurant.repository.OutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+    @Mock
+    private OutboxSink sink;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new OutboxDispatcher(outboxRepository, List.of(sink), new TransactionTemplate(transactionManager),
+                jdbcTemplate, 2, 72, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void dispatch_DeliversBatchesInOrderAndMarksThemPublished() throws Exception {
+        when(jdbcTemplate.queryForObject(any(String.class), eq(Boolean.class), anyLong())).thenReturn(true);
+        when(outboxRepository.findPending(any()))
+                .thenReturn(List.of(event(1L), event(2L)))
+                .thenReturn(List.of(event(3L)));
+
+        dispatcher.dispatch();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutboxMessage>> batches = ArgumentCaptor.forClass(List.class);
+        verify(sink, times(2)).publish(batches.capture());
+        assertEquals(List.of(1L, 2L), batches.getAllValues().get(0).stream().map(OutboxMessage::id).toList());
+        assertEquals(List.of(3L), batches.getAllValues().get(1).stream().map(OutboxMessage::id).toList());
+
+        verify(outboxRepository).markPublished(eq(List.of(1L, 2L)), any());
+        verify(outboxRepository).markPublished(eq(List.of(3L)), any());
+    }
+
+    @Test
+    void dispatch_SinkFailure_RollsBackAndLeavesBatchPending() throws Exception {
+        when(jdbcTemplate.queryForObject(any(String.class), eq(Boolean.class), anyLong())).thenReturn(true);
+        when(outboxRepository.findPending(any())).thenReturn(List.of(event(1L)));
+        doThrow(new IllegalStateException("broker down")).when(sink).publish(any());
+
+        dispatcher.dispatch();
+
+        verify(outboxRepository, never()).markPublished(any(), any());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void dispatch_AnotherInstanceHoldsLock_DoesNothing() {
+        when(jdbcTemplate.queryForObject(any(String.class), eq(Boolean.class), anyLong())).thenReturn(false);
+
+        dispatcher.dispatch();
+
+        verify(outboxRepository, never()).findPending(any());
+        verifyNoInteractions(sink);
+    }
+
+    private OutboxEvent event(Long id) {
+        return new OutboxEvent(id, OutboxWriter.RESERVATION, 100L + id, OutboxWriter.CREATED,
+                "{\"id\":" + (100L + id) + "}", LocalDateTime.now().minusSeconds(1), null);
+    }
+}
@@ -0,0 +1,67 @@
+package com.restaurant.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.restaurant.dto.ReservationDTO;
+import com.restaurant.dto.ReservationFilter;
+import com.restaurant.entity.ReservationStatus;
+import com.restaurant.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationExportServiceTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    // 和应用配置一样打开缩进，验证导出时仍是一行一个对象
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .build();
+
+    @Test
+    void export_WritesOneJsonObjectPerLineAndClosesStream() throws Exception {
+        LocalDateTime time = LocalDateTime.now().plusDays(1).withHour(18).withMinute(0).withSecond(0).withNano(0);
+        AtomicBoolean closed = new AtomicBoolean();
+
+        ReservationFilter filter = new ReservationFilter();
+        filter.setRestaurantId(1L);
+
+        when(reservationRepository.streamForExport(filter))
+                .thenReturn(Stream.of(
+                        new ReservationDTO(1L, 100L, 10L, time, 60, ReservationStatus.CONFIRMED),
+                        new ReservationDTO(2L, 101L, 11L, time.plusHours(1), 90, ReservationStatus.CONFIRMED)
+                ).onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ReservationExportService(reservationRepository, objectMapper).export(filter, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals(10L, first.get("tableId").asLong());
+        assertEquals(2L, objectMapper.readTree(lines[1]).get("id").asLong());
+
+        assertTrue(closed.get());
+        // 没给时间范围：只导出默认窗口 (本月和下月)
+        assertEquals(LocalDateTime.now().toLocalDate().withDayOfMonth(1).atStartOfDay(), filter.getFrom());
+        assertNotNull(filter.getTo());
+    }
+}
@@ -1,20 +1,35 @@
 package com.restaurant.service;
 
 import com.restaurant.dto.ReservationDTO;
+import com.restaurant.dto.ReservationFilter;
+import com.restaurant.dto.RestaurantDTO;
+import com.restaurant.dto.RestaurantTableDTO;
 import com.restaurant.entity.Customer;
 import com.restaurant.entity.Reservation;
+import com.restaurant.entity.ReservationStatus;
 import com.restaurant.entity.RestaurantTable;
 import com.restaurant.exception.BadRequestException;
 import com.restaurant.exception.ConflictException;
 import com.restaurant.repository.CustomerRepository;
 import com.restaurant.repository.ReservationRepository;
+import com.restaurant.repository.RestaurantRepository;
 import com.restaurant.repository.TableRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -22,8 +37,9 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ReservationServiceTest {
@@ -34,10 +50,32 @@ class ReservationServiceTest {
     private CustomerRepository customerRepository;
     @Mock
     private TableRepository tableRepository;
+    @Mock
+    private RestaurantRepository restaurantRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private OutboxWriter outbox;
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
-    @InjectMocks
     private ReservationService reservationService;
 
+    @BeforeEach
+    void setUp() {
+        reservationService = new ReservationService(
+                reservationRepository,
+                customerRepository,
+                tableRepository,
+                new ReservationTimelineIndex(reservationRepository, new SimpleMeterRegistry()),
+                new RestaurantMetadataCache(tableRepository, restaurantRepository, 100, 60, new SimpleMeterRegistry()),
+                new VersionStamps(true),
+                eventPublisher,
+                outbox,
+                new TransactionTemplate(transactionManager)
+        );
+    }
+
     // ---------------------- SUCCESS TEST ----------------------
     @Test
     void createReservation_Success() {
@@ -65,20 +103,66 @@ class ReservationServiceTest {
         saved.setRestaurantTable(table);
         saved.setReservationTime(bookingTime);
         saved.setDurationMinutes(60);
-        saved.setStatus("CONFIRMED");
+        saved.setStatus(ReservationStatus.CONFIRMED);
 
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-        when(tableRepository.findById(10L)).thenReturn(Optional.of(table));
-        when(reservationRepository.findPotentialOverlaps(anyLong(), any()))
+        when(tableRepository.findDtoById(10L)).thenReturn(Optional.of(tableDTO(10L, 4)));
+        when(tableRepository.getReferenceById(10L)).thenReturn(table);
+        when(reservationRepository.findUpcomingByTable(eq(10L), any(), any()))
                 .thenReturn(Collections.emptyList());
-        when(reservationRepository.save(any(Reservation.class)))
+        when(reservationRepository.saveAndFlush(any(Reservation.class)))
                 .thenReturn(saved);
 
         ReservationDTO result = reservationService.createReservation(dto);
 
         assertNotNull(result);
         assertEquals(100L, result.getId());
-        assertEquals("CONFIRMED", result.getStatus());
+        assertEquals(ReservationStatus.CONFIRMED, result.getStatus());
+        // 发件箱事件和预订同一个事务写入
+        verify(outbox).append(eq(OutboxWriter.RESERVATION), eq(100L), eq(OutboxWriter.CREATED), any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void createReservation_OnInsertFails_RollsBackBooking() {
+
+        LocalDateTime bookingTime = LocalDateTime.now().plusDays(1)
+                .withHour(18).withMinute(0);
+
+        ReservationDTO dto = new ReservationDTO();
+        dto.setCustomerId(1L);
+        dto.setTableId(10L);
+        dto.setReservationTime(bookingTime);
+        dto.setDurationMinutes(60);
+        dto.setNumGuests(2);
+
+        Customer customer = new Customer();
+        customer.setId(1L);
+
+        Reservation saved = new Reservation();
+        saved.setId(100L);
+        saved.setCustomer(customer);
+        saved.setRestaurantTable(tableEntity(10L));
+        saved.setReservationTime(bookingTime);
+        saved.setDurationMinutes(60);
+        saved.setStatus(ReservationStatus.CONFIRMED);
+
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(tableRepository.findDtoById(10L)).thenReturn(Optional.of(tableDTO(10L, 4)));
+        when(tableRepository.getReferenceById(10L)).thenReturn(tableEntity(10L));
+        when(reservationRepository.findUpcomingByTable(eq(10L), any(), any()))
+                .thenReturn(Collections.emptyList());
+        when(reservationRepository.saveAndFlush(any(Reservation.class)))
+                .thenReturn(saved);
+
+        // 例如候补条目的关联写不上：预订和关联一起回滚
+        assertThrows(IllegalStateException.class, () -> reservationService.createReservation(dto, id -> {
+            assertEquals(100L, id);
+            throw new IllegalStateException("claim released");
+        }));
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
     }
 
     // ---------------------- BAD REQUEST TEST ----------------------
@@ -92,11 +176,9 @@ class ReservationServiceTest {
         dto.setNumGuests(10); // 超过 4 人桌
 
         Customer customer = new Customer();
-        RestaurantTable table = new RestaurantTable();
-        table.setCapacity(4);
 
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-        when(tableRepository.findById(10L)).thenReturn(Optional.of(table));
+        when(tableRepository.findDtoById(10L)).thenReturn(Optional.of(tableDTO(10L, 4)));
 
         assertThrows(BadRequestException.class,
                 () -> reservationService.createReservation(dto));
@@ -118,10 +200,6 @@ class ReservationServiceTest {
 
         Customer customer = new Customer();
 
-        RestaurantTable table = new RestaurantTable();
-        table.setId(10L);
-        table.setCapacity(4);
-
         // 模拟冲突预订
         Reservation conflict = new Reservation();
         conflict.setId(99L);
@@ -129,12 +207,407 @@ class ReservationServiceTest {
         conflict.setDurationMinutes(60);
 
         when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-        when(tableRepository.findById(10L)).thenReturn(Optional.of(table));
-        when(reservationRepository.findPotentialOverlaps(anyLong(), any()))
+        when(tableRepository.findDtoById(10L)).thenReturn(Optional.of(tableDTO(10L, 4)));
+        when(reservationRepository.findUpcomingByTable(eq(10L), any(), any()))
                 .thenReturn(List.of(conflict));
+        when(reservationRepository.existsOverlap(eq(10L), any(), any(), any())).thenReturn(true);
 
         // 必须调用 service，否则 Mockito 认为 stub 没用
         assertThrows(ConflictException.class,
                 () -> reservationService.createReservation(dto));
     }
+
+    // ---------------------- CONCURRENT CONFLICT TEST ----------------------
+    @Test
+    void createReservation_ExclusionConstraintViolated_ThrowsConflictException() {
+
+        LocalDateTime bookingTime = LocalDateTime.now().plusDays(1)
+                .withHour(19).withMinute(0);
+
+        ReservationDTO dto = new ReservationDTO();
+        dto.setCustomerId(1L);
+        dto.setTableId(10L);
+        dto.setReservationTime(bookingTime);
+        dto.setDurationMinutes(60);
+        dto.setNumGuests(2);
+
+        RestaurantTable table = new RestaurantTable();
+        table.setId(10L);
+        table.setCapacity(4);
+
+        // 另一个请求在检查之后、插入之前抢到了同一时段
+        DataIntegrityViolationException violation = new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01"));
+
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(new Customer()));
+        when(tableRepository.findDtoById(10L)).thenReturn(Optional.of(tableDTO(10L, 4)));
+        when(tableRepository.getReferenceById(10L)).thenReturn(table);
+        when(reservationRepository.findUpcomingByTable(eq(10L), any(), any()))
+                .thenReturn(Collections.emptyList());
+        when(reservationRepository.saveAndFlush(any(Reservation.class)))
+                .thenThrow(violation);
+
+        assertThrows(ConflictException.class,
+                () -> reservationService.createReservation(dto));
+    }
+
+    // ---------------------- BATCH TEST ----------------------
+    @Test
+    void createReservations_OverlapWithinBatch_ThrowsConflictException() {
+
+        LocalDateTime bookingTime = LocalDateTime.now().plusDays(1)
+                .withHour(18).withMinute(0);
+
+        ReservationDTO first = new ReservationDTO();
+        first.setCustomerId(1L);
+        first.setTableId(10L);
+        first.setReservationTime(bookingTime);
+        first.setDurationMinutes(60);
+        first.setNumGuests(2);
+
+        ReservationDTO second = new ReservationDTO();
+        second.setCustomerId(1L);
+        second.setTableId(10L);
+        second.setReservationTime(bookingTime.plusMinutes(30));
+        second.setDurationMinutes(60);
+        second.setNumGuests(2);
+
+        Customer customer = new Customer();
+        customer.setId(1L);
+
+        when(customerRepository.findAllById(any())).thenReturn(List.of(customer));
+        when(tableRepository.findDtoByIdIn(any())).thenReturn(List.of(tableDTO(10L, 4)));
+        when(reservationRepository.findUpcomingByTable(eq(10L), any(), any()))
+                .thenReturn(Collections.emptyList());
+
+        assertThrows(ConflictException.class,
+                () -> reservationService.createReservations(List.of(first, second)));
+    }
+
+    // ---------------------- STATUS TEST ----------------------
+    @Test
+    void updateReservation_FromTerminalStatus_ThrowsConflictException() {
+
+        RestaurantTable table = new RestaurantTable();
+        table.setId(10L);
+
+        Reservation cancelled = new Reservation();
+        cancelled.setId(100L);
+        cancelled.setRestaurantTable(table);
+        cancelled.setReservationTime(LocalDateTime.now().plusDays(1).withHour(18).withMinute(0));
+        cancelled.setDurationMinutes(60);
+        cancelled.setStatus(ReservationStatus.CANCELLED);
+
+        ReservationDTO dto = new ReservationDTO();
+        dto.setStatus(ReservationStatus.CONFIRMED);
+
+        when(reservationRepository.findForWriteByIdWithin(eq(100L), any(), any())).thenReturn(Optional.of(cancelled));
+
+        assertThrows(ConflictException.class,
+                () -> reservationService.updateReservation(100L, null, dto));
+        verify(reservationRepository, never())
+                .updateByIdAndReservationTime(any(), any(), any(), any(), anyInt(), any(), any());
+    }
+
+    // ---------------------- PARTITION KEY TEST ----------------------
+    @Test
+    void updateReservation_WritesByIdAndPreviousReservationTime() {
+
+        LocalDateTime previous = LocalDateTime.now().plusDays(1).withHour(18).withMinute(0).withSecond(0).withNano(0);
+        LocalDateTime moved = previous.plusMonths(1);
+
+        Reservation existing = new Reservation();
+        existing.setId(100L);
+        existing.setRestaurantTable(tableEntity(10L));
+        existing.setReservationTime(previous);
+        existing.setDurationMinutes(60);
+        existing.setStatus(ReservationStatus.CONFIRMED);
+
+        ReservationDTO dto = new ReservationDTO();
+        dto.setReservationTime(moved);
+
+        when(reservationRepository.findForWriteByIdAndReservationTime(100L, previous)).thenReturn(Optional.of(existing));
+        when(reservationRepository.findUpcomingByTable(eq(10L), any(), any())).thenReturn(Collections.emptyList());
+        lenient().when(reservationRepository.existsOverlap(eq(10L), any(), any(), any())).thenReturn(false);
+        when(reservationRepository.updateByIdAndReservationTime(
+                eq(100L), eq(previous), any(), eq(moved), eq(60), eq(moved.plusMinutes(60)), eq(ReservationStatus.CONFIRMED)))
+                .thenReturn(1);
+
+        ReservationDTO updated = reservationService.updateReservation(100L, previous, dto);
+
+        assertEquals(moved, updated.getReservationTime());
+        verify(reservationRepository, never()).findForWriteById(any());
+    }
+
+    @Test
+    void updateReservation_RowChangedConcurrently_ThrowsConflictException() {
+
+        Reservation existing = new Reservation();
+        existing.setId(100L);
+        existing.setRestaurantTable(tableEntity(10L));
+        existing.setReservationTime(LocalDateTime.now().plusDays(1).withHour(18).withMinute(0));
+        existing.setDurationMinutes(60);
+        existing.setStatus(ReservationStatus.CONFIRMED);
+
+        ReservationDTO dto = new ReservationDTO();
+        dto.setStatus(ReservationStatus.CANCELLED);
+
+        when(reservationRepository.findForWriteByIdWithin(eq(100L), any(), any())).thenReturn(Optional.of(existing));
+        // 另一个请求已经改了预订时间：按旧的 (id, reservation_time) 更新不到任何行
+
+        assertThrows(ConflictException.class,
+                () -> reservationService.updateReservation(100L, null, dto));
+    }
+
+    // ---------------------- DEFAULT WINDOW TEST ----------------------
+    @Test
+    void getReservations_WithoutRange_ReadsCurrentAndNextMonth() {
+
+        ReservationFilter filter = new ReservationFilter();
+        filter.setRestaurantId(1L);
+        when(reservationRepository.findDtoPage(eq(0L), same(filter), any(Limit.class))).thenReturn(List.of());
+
+        reservationService.getReservations(filter, null, null);
+
+        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        assertEquals(monthStart, filter.getFrom());
+        assertEquals(monthStart.plusMonths(2), filter.getTo());
+    }
+
+    @Test
+    void applyDefaultWindow_SingleBound_ExtendedToTwoMonths() {
+
+        ReservationFilter fromOnly = new ReservationFilter();
+        fromOnly.setFrom(LocalDateTime.of(2026, 3, 10, 12, 0));
+        ReservationService.applyDefaultWindow(fromOnly, LocalDateTime.now());
+        assertEquals(LocalDateTime.of(2026, 5, 1, 0, 0), fromOnly.getTo());
+
+        ReservationFilter toOnly = new ReservationFilter();
+        toOnly.setTo(LocalDateTime.of(2026, 3, 10, 12, 0));
+        ReservationService.applyDefaultWindow(toOnly, LocalDateTime.now());
+        assertEquals(LocalDateTime.of(2026, 2, 1, 0, 0), toOnly.getFrom());
+    }
+
+    // ---------------------- WAITLIST EVENT TEST ----------------------
+    @Test
+    void deleteReservation_PublishesFreedSlot() {
+
+        LocalDateTime bookingTime = LocalDateTime.now().plusDays(1)
+                .withHour(18).withMinute(0).withSecond(0).withNano(0);
+
+        RestaurantTable table = new RestaurantTable();
+        table.setId(10L);
+
+        Reservation reservation = new Reservation();
+        reservation.setId(100L);
+        reservation.setRestaurantTable(table);
+        reservation.setReservationTime(bookingTime);
+        reservation.setDurationMinutes(90);
+        reservation.setStatus(ReservationStatus.CONFIRMED);
+
+        when(reservationRepository.findForWriteByIdWithin(eq(100L), any(), any())).thenReturn(Optional.of(reservation));
+        when(reservationRepository.deleteByIdAndReservationTime(100L, reservation.getReservationTime())).thenReturn(1);
+
+        reservationService.deleteReservation(100L, null);
+
+        verify(eventPublisher).publishEvent(
+                new ReservationSlotFreedEvent(10L, bookingTime, bookingTime.plusMinutes(90)));
+        verify(outbox).append(eq(OutboxWriter.RESERVATION), eq(100L), eq(OutboxWriter.DELETED),
+                argThat(dto -> dto instanceof ReservationDTO r && r.getCustomerId() == null && r.getTableId().equals(10L)));
+    }
+
+    @Test
+    void deleteReservation_CancelledReservation_PublishesNothing() {
+
+        RestaurantTable table = new RestaurantTable();
+        table.setId(10L);
+
+        Reservation reservation = new Reservation();
+        reservation.setId(100L);
+        reservation.setRestaurantTable(table);
+        reservation.setReservationTime(LocalDateTime.now().minusMonths(3));
+        reservation.setDurationMinutes(60);
+        reservation.setStatus(ReservationStatus.CANCELLED);
+
+        // 早已过去的预订不在默认窗口内：退回按 id 查找
+        when(reservationRepository.findForWriteByIdWithin(eq(100L), any(), any())).thenReturn(Optional.empty());
+        when(reservationRepository.findForWriteById(100L)).thenReturn(Optional.of(reservation));
+        when(reservationRepository.deleteByIdAndReservationTime(100L, reservation.getReservationTime())).thenReturn(1);
+
+        reservationService.deleteReservation(100L, null);
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    // ---------------------- TIMELINE AFTER COMMIT TEST ----------------------
+    @Test
+    void deleteReservation_InsideTransaction_UpdatesTimelineOnlyAfterCommit() {
+
+        ReservationTimelineIndex timelineIndex = mock(ReservationTimelineIndex.class);
+        ReservationService service = new ReservationService(
+                reservationRepository,
+                customerRepository,
+                tableRepository,
+                timelineIndex,
+                new RestaurantMetadataCache(tableRepository, restaurantRepository, 100, 60, new SimpleMeterRegistry()),
+                new VersionStamps(true),
+                eventPublisher,
+                outbox,
+                new TransactionTemplate(transactionManager)
+        );
+
+        Reservation reservation = new Reservation();
+        reservation.setId(100L);
+        reservation.setRestaurantTable(tableEntity(10L));
+        reservation.setReservationTime(LocalDateTime.now().plusDays(1));
+        reservation.setDurationMinutes(60);
+        reservation.setStatus(ReservationStatus.CONFIRMED);
+
+        when(reservationRepository.findForWriteByIdAndReservationTime(100L, reservation.getReservationTime()))
+                .thenReturn(Optional.of(reservation));
+        when(reservationRepository.deleteByIdAndReservationTime(100L, reservation.getReservationTime())).thenReturn(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            service.deleteReservation(100L, reservation.getReservationTime());
+
+            // 回滚的话内存时间线不能被改动
+            verify(timelineIndex, never()).remove(any(), any());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+            verify(timelineIndex).remove(10L, 100L);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // ---------------------- METADATA CACHE TEST ----------------------
+    @Test
+    void createReservation_TableMetadataLoadedOnce() {
+
+        LocalDateTime bookingTime = LocalDateTime.now().plusDays(1)
+                .withHour(18).withMinute(0);
+
+        RestaurantTable table = new RestaurantTable();
+        table.setId(10L);
+
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(new Customer()));
+        when(tableRepository.findDtoById(10L)).thenReturn(Optional.of(tableDTO(10L, 4)));
+        when(tableRepository.getReferenceById(10L)).thenReturn(table);
+        when(reservationRepository.findUpcomingByTable(eq(10L), any(), any()))
+                .thenReturn(Collections.emptyList());
+        when(reservationRepository.saveAndFlush(any(Reservation.class)))
+                .thenAnswer(i -> {
+                    Reservation r = i.getArgument(0);
+                    r.setId((long) r.getReservationTime().getHour());
+                    return r;
+                });
+
+        for (int hour : new int[]{12, 14}) {
+            ReservationDTO dto = new ReservationDTO();
+            dto.setCustomerId(1L);
+            dto.setTableId(10L);
+            dto.setReservationTime(bookingTime.withHour(hour));
+            dto.setDurationMinutes(60);
+            dto.setNumGuests(2);
+            reservationService.createReservation(dto);
+        }
+
+        verify(tableRepository, times(1)).findDtoById(10L);
+        verify(tableRepository, never()).findById(any());
+    }
+
+    // ---------------------- TABLE ASSIGNMENT TEST ----------------------
+    @Test
+    void createReservation_WithoutTableId_AssignsSmallestFreeTable() {
+
+        ReservationDTO dto = assignmentRequest(3);
+
+        when(restaurantRepository.findDtoById(1L)).thenReturn(Optional.of(new RestaurantDTO(1L, "Tasty Food", null, null)));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(new Customer()));
+        when(tableRepository.findAvailableDtoByRestaurantIdOrderByCapacity(1L))
+                .thenReturn(List.of(tableDTO(10L, 2), tableDTO(11L, 4), tableDTO(12L, 4), tableDTO(13L, 6)));
+        // 11 号桌这个时段已被占用
+        when(reservationRepository.findBusyTableIds(eq(List.of(11L, 12L, 13L)), any(), any(), any()))
+                .thenReturn(List.of(11L));
+        when(tableRepository.getReferenceById(any())).thenAnswer(i -> tableEntity(i.getArgument(0)));
+        when(reservationRepository.saveAndFlush(any(Reservation.class)))
+                .thenAnswer(i -> withId(i.getArgument(0)));
+
+        ReservationDTO result = reservationService.createReservation(dto);
+
+        assertEquals(12L, result.getTableId());
+        assertEquals(1L, result.getRestaurantId());
+        verify(reservationRepository, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    void createReservation_WithoutTableId_ConcurrentBookingTriesNextTable() {
+
+        ReservationDTO dto = assignmentRequest(2);
+
+        DataIntegrityViolationException violation = new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01"));
+
+        when(restaurantRepository.findDtoById(1L)).thenReturn(Optional.of(new RestaurantDTO(1L, "Tasty Food", null, null)));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(new Customer()));
+        when(tableRepository.findAvailableDtoByRestaurantIdOrderByCapacity(1L))
+                .thenReturn(List.of(tableDTO(10L, 2), tableDTO(11L, 4)));
+        when(reservationRepository.findBusyTableIds(any(), any(), any(), any()))
+                .thenReturn(Collections.emptyList());
+        when(tableRepository.getReferenceById(any())).thenAnswer(i -> tableEntity(i.getArgument(0)));
+        when(reservationRepository.saveAndFlush(any(Reservation.class)))
+                .thenThrow(violation)
+                .thenAnswer(i -> withId(i.getArgument(0)));
+
+        ReservationDTO result = reservationService.createReservation(dto);
+
+        assertEquals(11L, result.getTableId());
+        verify(reservationRepository, times(2)).saveAndFlush(any());
+    }
+
+    @Test
+    void createReservation_WithoutTableId_NoTableFits_ThrowsBadRequest() {
+
+        ReservationDTO dto = assignmentRequest(8);
+
+        when(restaurantRepository.findDtoById(1L)).thenReturn(Optional.of(new RestaurantDTO(1L, "Tasty Food", null, null)));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(new Customer()));
+        when(tableRepository.findAvailableDtoByRestaurantIdOrderByCapacity(1L))
+                .thenReturn(List.of(tableDTO(10L, 2), tableDTO(11L, 4)));
+
+        assertThrows(BadRequestException.class,
+                () -> reservationService.createReservation(dto));
+        verify(reservationRepository, never()).findBusyTableIds(any(), any(), any(), any());
+    }
+
+    private ReservationDTO assignmentRequest(int guests) {
+        ReservationDTO dto = new ReservationDTO();
+        dto.setCustomerId(1L);
+        dto.setRestaurantId(1L);
+        dto.setReservationTime(LocalDateTime.now().plusDays(1).withHour(18).withMinute(0));
+        dto.setDurationMinutes(60);
+        dto.setNumGuests(guests);
+        return dto;
+    }
+
+    private RestaurantTable tableEntity(Long id) {
+        RestaurantTable table = new RestaurantTable();
+        table.setId(id);
+        return table;
+    }
+
+    private Reservation withId(Reservation r) {
+        r.setId(100L);
+        return r;
+    }
+
+    private RestaurantTableDTO tableDTO(Long id, int capacity) {
+        return new RestaurantTableDTO(id, 1L, 1, capacity, true);
+    }
 }
@@ -0,0 +1,154 @@
+package com.restaurant.service;
+
+import com.restaurant.entity.Reservation;
+import com.restaurant.entity.ReservationStatus;
+import com.restaurant.entity.RestaurantTable;
+import com.restaurant.repository.ReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationTimelineIndexTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    private ReservationTimelineIndex index;
+
+    private final LocalDateTime tomorrowNoon = LocalDateTime.now().plusDays(1)
+            .withHour(12).withMinute(0).withSecond(0).withNano(0);
+
+    @BeforeEach
+    void setUp() {
+        index = new ReservationTimelineIndex(reservationRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void hasOverlap_DetectsOverlappingAndIgnoresAdjacentBookings() {
+        when(reservationRepository.findUpcomingByTable(eq(10L), any(), any()))
+                .thenReturn(List.of(reservation(1L, 10L, tomorrowNoon, 60)));
+        when(reservationRepository.existsOverlap(eq(10L), any(), any(), any())).thenReturn(true);
+
+        assertTrue(index.hasOverlap(10L, tomorrowNoon.plusMinutes(30), tomorrowNoon.plusMinutes(90), null));
+        assertTrue(index.hasOverlap(10L, tomorrowNoon.minusMinutes(30), tomorrowNoon.plusMinutes(10), null));
+        assertFalse(index.hasOverlap(10L, tomorrowNoon.plusMinutes(60), tomorrowNoon.plusMinutes(120), null));
+        assertFalse(index.hasOverlap(10L, tomorrowNoon.minusMinutes(60), tomorrowNoon, null));
+
+        // misses are answered from memory, only the two hits were confirmed
+        verify(reservationRepository, times(2)).existsOverlap(eq(10L), any(), any(), any());
+    }
+
+    @Test
+    void hasOverlap_IgnoresExcludedReservation() {
+        when(reservationRepository.findUpcomingByTable(eq(10L), any(), any()))
+                .thenReturn(List.of(reservation(1L, 10L, tomorrowNoon, 60)));
+
+        assertFalse(index.hasOverlap(10L, tomorrowNoon, tomorrowNoon.plusMinutes(60), 1L));
+    }
+
+    @Test
+    void putAndRemove_KeepLoadedTimelineInSync() {
+        when(reservationRepository.findUpcomingByTable(eq(10L), any(), any()))
+                .thenReturn(Collections.emptyList());
+
+        when(reservationRepository.existsOverlap(eq(10L), any(), any(), any())).thenReturn(true);
+
+        assertFalse(index.hasOverlap(10L, tomorrowNoon, tomorrowNoon.plusMinutes(60), null));
+
+        index.put(reservation(2L, 10L, tomorrowNoon, 60));
+        assertTrue(index.hasOverlap(10L, tomorrowNoon, tomorrowNoon.plusMinutes(60), null));
+
+        index.remove(10L, 2L);
+        assertFalse(index.hasOverlap(10L, tomorrowNoon, tomorrowNoon.plusMinutes(60), null));
+
+        // the timeline is loaded only once
+        verify(reservationRepository, times(1)).findUpcomingByTable(eq(10L), any(), any());
+    }
+
+    @Test
+    void put_CancelledReservation_FreesSlot() {
+        Reservation booked = reservation(3L, 10L, tomorrowNoon, 60);
+        when(reservationRepository.findUpcomingByTable(eq(10L), any(), any()))
+                .thenReturn(List.of(booked));
+        when(reservationRepository.existsOverlap(eq(10L), any(), any(), any())).thenReturn(true);
+
+        assertTrue(index.hasOverlap(10L, tomorrowNoon, tomorrowNoon.plusMinutes(60), null));
+
+        booked.setStatus(ReservationStatus.CANCELLED);
+        index.put(booked);
+
+        assertFalse(index.hasOverlap(10L, tomorrowNoon, tomorrowNoon.plusMinutes(60), null));
+    }
+
+    @Test
+    void hasOverlap_HitRefutedByDatabase_FreesSlotAndReloads() {
+        // 另一个实例已经删除了这条预订：内存里还占着，数据库里已经空了
+        when(reservationRepository.findUpcomingByTable(eq(10L), any(), any()))
+                .thenReturn(List.of(reservation(5L, 10L, tomorrowNoon, 60)))
+                .thenReturn(Collections.emptyList());
+        when(reservationRepository.existsOverlap(10L, tomorrowNoon, tomorrowNoon.plusMinutes(60), null))
+                .thenReturn(false);
+
+        assertFalse(index.hasOverlap(10L, tomorrowNoon, tomorrowNoon.plusMinutes(60), null));
+        assertFalse(index.hasOverlap(10L, tomorrowNoon, tomorrowNoon.plusMinutes(60), null));
+
+        // the refuted hit dropped the timeline; the reloaded one answers the second check alone
+        verify(reservationRepository, times(2)).findUpcomingByTable(eq(10L), any(), any());
+        verify(reservationRepository, times(1)).existsOverlap(10L, tomorrowNoon, tomorrowNoon.plusMinutes(60), null);
+    }
+
+    @Test
+    void hasOverlap_PastInterval_FallsBackToDatabase() {
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+
+        when(reservationRepository.findUpcomingByTable(eq(10L), any(), any()))
+                .thenReturn(Collections.emptyList());
+        when(reservationRepository.existsOverlap(10L, yesterday, yesterday.plusMinutes(30), null))
+                .thenReturn(true);
+
+        assertTrue(index.hasOverlap(10L, yesterday, yesterday.plusMinutes(30), null));
+    }
+
+    @Test
+    void hasOverlap_BeyondLoadedWindow_FallsBackToDatabase() {
+        LocalDateTime farAhead = ReservationTimelineIndex.coverageEnd(LocalDateTime.now()).plusDays(3).withHour(12);
+
+        when(reservationRepository.findUpcomingByTable(eq(10L), any(), any()))
+                .thenReturn(Collections.emptyList());
+        when(reservationRepository.existsOverlap(10L, farAhead, farAhead.plusMinutes(60), null))
+                .thenReturn(true);
+
+        // bookings beyond the window are not indexed either
+        index.hasOverlap(10L, tomorrowNoon, tomorrowNoon.plusMinutes(60), null);
+        index.put(reservation(4L, 10L, farAhead, 60));
+
+        assertTrue(index.hasOverlap(10L, farAhead, farAhead.plusMinutes(60), null));
+        verify(reservationRepository).existsOverlap(10L, farAhead, farAhead.plusMinutes(60), null);
+    }
+
+    private Reservation reservation(Long id, Long tableId, LocalDateTime start, int duration) {
+        RestaurantTable table = new RestaurantTable();
+        table.setId(tableId);
+
+        Reservation r = new Reservation();
+        r.setId(id);
+        r.setRestaurantTable(table);
+        r.setReservationTime(start);
+        r.setDurationMinutes(duration);
+        r.setStatus(ReservationStatus.CONFIRMED);
+        return r;
+    }
+}
@@ -22,13 +22,19 @@ class RestaurantServiceTest {
     @Mock
     private RestaurantRepository restaurantRepository;
 
+    @Mock
+    private RestaurantMetadataCache metadataCache;
+
+    @Mock
+    private VersionStamps versionStamps;
+
     @InjectMocks
     private RestaurantService restaurantService;
 
     @Test
     void getRestaurantById_ShouldReturnDTO() {
-        Restaurant r = new Restaurant(); r.setId(1L); r.setName("Tasty Food");
-        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(r));
+        RestaurantDTO r = new RestaurantDTO(1L, "Tasty Food", null, null);
+        when(metadataCache.getRestaurant(1L)).thenReturn(r);
 
         RestaurantDTO result = restaurantService.getRestaurantById(1L);
 
@@ -55,4 +61,18 @@ class RestaurantServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> restaurantService.deleteRestaurant(99L));
         verify(restaurantRepository, never()).deleteById(any());
     }
+
+    @Test
+    void updateRestaurant_ShouldWriteThroughCache() {
+        Restaurant existing = new Restaurant(); existing.setId(1L); existing.setName("Old");
+        RestaurantDTO dto = new RestaurantDTO(); dto.setName("New");
+
+        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(restaurantRepository.save(any(Restaurant.class))).thenAnswer(i -> i.getArgument(0));
+
+        RestaurantDTO result = restaurantService.updateRestaurant(1L, dto);
+
+        assertEquals("New", result.getName());
+        verify(metadataCache).putRestaurant(result);
+    }
 }
\ No newline at end of file
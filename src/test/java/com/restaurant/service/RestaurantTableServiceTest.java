@@ -1,5 +1,6 @@
 package com.restaurant.service;
 
+import com.restaurant.dto.RestaurantDTO;
 import com.restaurant.dto.RestaurantTableDTO;
 import com.restaurant.entity.Restaurant;
 import com.restaurant.entity.RestaurantTable;
@@ -16,6 +17,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +29,12 @@ class RestaurantTableServiceTest {
     @Mock
     private RestaurantRepository restaurantRepository;
 
+    @Mock
+    private RestaurantMetadataCache metadataCache;
+
+    @Mock
+    private VersionStamps versionStamps;
+
     @InjectMocks
     private RestaurantTableService tableService;
 
@@ -43,7 +51,8 @@ class RestaurantTableServiceTest {
         savedTable.setRestaurant(restaurant);
         savedTable.setTableNumber(5);
 
-        when(restaurantRepository.findById(1L)).thenReturn(Optional.of(restaurant));
+        when(metadataCache.getRestaurant(1L)).thenReturn(new RestaurantDTO(1L, "Tasty Food", null, null));
+        when(restaurantRepository.getReferenceById(1L)).thenReturn(restaurant);
         when(tableRepository.save(any(RestaurantTable.class))).thenReturn(savedTable);
 
         RestaurantTableDTO result = tableService.createTable(dto);
@@ -76,5 +85,16 @@ class RestaurantTableServiceTest {
 
         assertEquals(6, result.getCapacity());
         assertEquals(5L, result.getRestaurantId()); // Should remain unchanged
+        verify(metadataCache).putTable(result);     // write-through
+    }
+
+    @Test
+    void deleteTable_ShouldEvictCachedTable() {
+        when(tableRepository.existsById(1L)).thenReturn(true);
+
+        tableService.deleteTable(1L);
+
+        verify(tableRepository).deleteById(1L);
+        verify(metadataCache).evictTable(1L);
     }
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.restaurant.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionStampsTest {
+
+    private final VersionStamps stamps = new VersionStamps(true);
+
+    @Test
+    void bump_ChangesEntityAndCollectionOnly() {
+        String tables = stamps.collectionETag(VersionStamps.TABLES);
+        String table1 = stamps.entityETag(VersionStamps.TABLES, 1L);
+        String table2 = stamps.entityETag(VersionStamps.TABLES, 2L);
+        String restaurants = stamps.collectionETag(VersionStamps.RESTAURANTS);
+
+        stamps.bump(VersionStamps.TABLES, 1L);
+
+        assertNotEquals(tables, stamps.collectionETag(VersionStamps.TABLES));
+        assertNotEquals(table1, stamps.entityETag(VersionStamps.TABLES, 1L));
+        assertEquals(table2, stamps.entityETag(VersionStamps.TABLES, 2L));
+        assertEquals(restaurants, stamps.collectionETag(VersionStamps.RESTAURANTS));
+    }
+
+    @Test
+    void bumpAll_ChangesEveryEntity() {
+        String table2 = stamps.entityETag(VersionStamps.TABLES, 2L);
+
+        stamps.bumpAll(VersionStamps.TABLES);
+
+        assertNotEquals(table2, stamps.entityETag(VersionStamps.TABLES, 2L));
+    }
+
+    @Test
+    void bump_InsideTransaction_DeferredUntilCommit() {
+        String before = stamps.entityETag(VersionStamps.RESERVATIONS, 5L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            stamps.bump(VersionStamps.RESERVATIONS, 5L);
+            assertEquals(before, stamps.entityETag(VersionStamps.RESERVATIONS, 5L));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNotEquals(before, stamps.entityETag(VersionStamps.RESERVATIONS, 5L));
+    }
+
+    @Test
+    void bumpAll_InsideTransaction_DeferredUntilCommit() {
+        String before = stamps.collectionETag(VersionStamps.TABLES);
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            stamps.bumpAll(VersionStamps.TABLES);
+            assertEquals(before, stamps.collectionETag(VersionStamps.TABLES));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertNotEquals(before, stamps.collectionETag(VersionStamps.TABLES));
+    }
+
+    @Test
+    void bump_InsideNonTransactionalScope_AppliedRightAway() {
+        String before = stamps.entityETag(VersionStamps.RESERVATIONS, 6L);
+
+        // NOT_SUPPORTED / SUPPORTS: synchronization is on but nothing will commit
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            stamps.bump(VersionStamps.RESERVATIONS, 6L);
+
+            assertNotEquals(before, stamps.entityETag(VersionStamps.RESERVATIONS, 6L));
+            assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void disabled_NoETags() {
+        VersionStamps disabled = new VersionStamps(false);
+
+        assertNull(disabled.collectionETag(VersionStamps.TABLES));
+        assertNull(disabled.entityETag(VersionStamps.TABLES, 1L));
+    }
+}
@@ -0,0 +1,181 @@
+package com.restaurant.service;
+
+import com.restaurant.dto.ReservationDTO;
+import com.restaurant.dto.RestaurantTableDTO;
+import com.restaurant.dto.WaitlistEntryDTO;
+import com.restaurant.entity.WaitlistStatus;
+import com.restaurant.exception.ConflictException;
+import com.restaurant.repository.WaitlistRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistPromoterTest {
+
+    @Mock
+    private WaitlistRepository waitlistRepository;
+    @Mock
+    private ReservationService reservationService;
+    @Mock
+    private RestaurantMetadataCache metadataCache;
+
+    private WaitlistPromoter promoter;
+
+    private final LocalDateTime tomorrowSix = LocalDateTime.now().plusDays(1)
+            .withHour(18).withMinute(0).withSecond(0).withNano(0);
+
+    @BeforeEach
+    void setUp() {
+        promoter = new WaitlistPromoter(waitlistRepository, reservationService, metadataCache,
+                10, new SimpleMeterRegistry());
+        lenient().when(metadataCache.getTable(10L)).thenReturn(new RestaurantTableDTO(10L, 1L, 3, 4, true));
+    }
+
+    @Test
+    void onSlotFreed_BooksFirstCandidateThatCanBeClaimed() {
+        WaitlistEntryDTO alreadyTaken = entry(1L, 4, tomorrowSix.minusHours(1));
+        WaitlistEntryDTO next = entry(2L, 3, tomorrowSix.minusHours(1));
+
+        when(waitlistRepository.findCandidates(eq(1L), eq(4), eq(tomorrowSix), eq(tomorrowSix.plusHours(2)), any()))
+                .thenReturn(List.of(alreadyTaken, next));
+        when(waitlistRepository.claim(eq(1L), any())).thenReturn(0);
+        when(waitlistRepository.claim(eq(2L), any())).thenReturn(1);
+        when(waitlistRepository.linkReservation(eq(2L), any(), eq(500L))).thenReturn(1);
+        when(reservationService.createReservation(any(), any())).thenAnswer(bookedAs(500L));
+
+        promoter.onSlotFreed(new ReservationSlotFreedEvent(10L, tomorrowSix, tomorrowSix.plusHours(2)));
+
+        ArgumentCaptor<ReservationDTO> request = ArgumentCaptor.forClass(ReservationDTO.class);
+        verify(reservationService).createReservation(request.capture(), any());
+        assertEquals(10L, request.getValue().getTableId());
+        assertEquals(tomorrowSix, request.getValue().getReservationTime()); // 不早于腾出的时段
+        assertEquals(3, request.getValue().getNumGuests());
+
+        // 关联写在预订的事务里，用的是这次认领的时间
+        ArgumentCaptor<LocalDateTime> claimedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(waitlistRepository).claim(eq(2L), claimedAt.capture());
+        verify(waitlistRepository).linkReservation(2L, claimedAt.getValue(), 500L);
+    }
+
+    @Test
+    void onSlotFreed_RejectedBooking_ReleasesEntryAndTriesNext() {
+        WaitlistEntryDTO tooLong = entry(1L, 4, tomorrowSix);
+        WaitlistEntryDTO fits = entry(2L, 2, tomorrowSix.plusMinutes(30));
+
+        when(waitlistRepository.findCandidates(eq(1L), eq(4), any(), any(), any()))
+                .thenReturn(List.of(tooLong, fits));
+        when(waitlistRepository.claim(any(), any())).thenReturn(1);
+        when(waitlistRepository.linkReservation(eq(2L), any(), eq(501L))).thenReturn(1);
+        when(reservationService.createReservation(any(), any()))
+                .thenThrow(new ConflictException("Table is already reserved for the requested time slot."))
+                .thenAnswer(bookedAs(501L));
+
+        promoter.onSlotFreed(new ReservationSlotFreedEvent(10L, tomorrowSix, tomorrowSix.plusHours(2)));
+
+        verify(waitlistRepository).releaseClaim(eq(1L), any());
+        verify(waitlistRepository).linkReservation(eq(2L), any(), eq(501L));
+        verify(waitlistRepository, never()).linkReservation(eq(1L), any(), any());
+    }
+
+    @Test
+    void onSlotFreed_UnexpectedFailure_ReleasesEntry() {
+        WaitlistEntryDTO candidate = entry(1L, 4, tomorrowSix);
+
+        when(waitlistRepository.findCandidates(eq(1L), eq(4), any(), any(), any()))
+                .thenReturn(List.of(candidate));
+        when(waitlistRepository.claim(eq(1L), any())).thenReturn(1);
+        when(reservationService.createReservation(any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"));
+
+        promoter.onSlotFreed(new ReservationSlotFreedEvent(10L, tomorrowSix, tomorrowSix.plusHours(2)));
+
+        verify(waitlistRepository).releaseClaim(eq(1L), any());
+        verify(waitlistRepository, never()).linkReservation(any(), any(), any());
+    }
+
+    @Test
+    void onSlotFreed_ClaimReleasedWhileBooking_AbandonsBooking() {
+        WaitlistEntryDTO candidate = entry(1L, 4, tomorrowSix);
+
+        when(waitlistRepository.findCandidates(eq(1L), eq(4), any(), any(), any()))
+                .thenReturn(List.of(candidate));
+        when(waitlistRepository.claim(eq(1L), any())).thenReturn(1);
+        // 清扫已经把认领放回候补：在预订事务里关联失败，预订随之回滚
+        when(waitlistRepository.linkReservation(eq(1L), any(), eq(502L))).thenReturn(0);
+        when(reservationService.createReservation(any(), any())).thenAnswer(bookedAs(502L));
+
+        promoter.onSlotFreed(new ReservationSlotFreedEvent(10L, tomorrowSix, tomorrowSix.plusHours(2)));
+
+        verify(waitlistRepository).releaseClaim(eq(1L), any());
+    }
+
+    @Test
+    void sweepUnfinishedClaims_ReleasesClaimsOlderThanTimeout() {
+        WaitlistEntryDTO stale = entry(1L, 4, tomorrowSix);
+        WaitlistEntryDTO finishedMeanwhile = entry(2L, 2, tomorrowSix);
+
+        when(waitlistRepository.findUnfinishedClaims(any(), any())).thenReturn(List.of(stale, finishedMeanwhile));
+        when(waitlistRepository.releaseUnfinishedClaim(eq(1L), any())).thenReturn(1);
+        when(waitlistRepository.releaseUnfinishedClaim(eq(2L), any())).thenReturn(0);
+
+        LocalDateTime before = LocalDateTime.now();
+        promoter.sweepUnfinishedClaims();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(waitlistRepository).findUnfinishedClaims(cutoff.capture(), any());
+        assertFalse(cutoff.getValue().isBefore(before.minusMinutes(10))); // 只放回超过认领超时的
+        verify(waitlistRepository).releaseUnfinishedClaim(eq(1L), any());
+        verify(waitlistRepository).releaseUnfinishedClaim(eq(2L), any());
+        verifyNoInteractions(reservationService);
+    }
+
+    @Test
+    void onSlotFreed_SlotAlreadyOver_DoesNothing() {
+        LocalDateTime earlier = LocalDateTime.now().minusHours(3);
+
+        promoter.onSlotFreed(new ReservationSlotFreedEvent(10L, earlier, earlier.plusHours(1)));
+
+        verifyNoInteractions(waitlistRepository, reservationService);
+    }
+
+    @Test
+    void nextSlot_RoundsUpToSlotBoundary() {
+        LocalDateTime noon = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+        assertEquals(noon, WaitlistPromoter.nextSlot(noon));
+        assertEquals(noon.plusMinutes(15), WaitlistPromoter.nextSlot(noon.plusSeconds(1)));
+        assertEquals(noon.plusMinutes(30), WaitlistPromoter.nextSlot(noon.plusMinutes(16)));
+    }
+
+    private WaitlistEntryDTO entry(Long id, int guests, LocalDateTime earliestStart) {
+        return new WaitlistEntryDTO(id, 7L, 1L, guests, 60,
+                earliestStart, earliestStart.plusHours(2), WaitlistStatus.WAITING, null, LocalDateTime.now());
+    }
+
+    /** Books as reservation {@code id}, running the in-transaction callback like ReservationService. */
+    private Answer<ReservationDTO> bookedAs(Long id) {
+        return invocation -> {
+            LongConsumer onInsert = invocation.getArgument(1);
+            onInsert.accept(id);
+            ReservationDTO dto = new ReservationDTO();
+            dto.setId(id);
+            return dto;
+        };
+    }
+}